@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.jmh;
+
+import java.util.concurrent.TimeoutException;
+
+import de.carne.jfx.test.HeadlessToolkit;
+import javafx.stage.Stage;
+
+/**
+ * Utility class providing a (headless) JavaFX toolkit for benchmarks requiring the JavaFX application thread.
+ */
+final class BenchmarkToolkit {
+
+	private BenchmarkToolkit() {
+		// Make sure this class is not instantiated from outside
+	}
+
+	/**
+	 * Start the JavaFX toolkit (if not yet started).
+	 * <p>
+	 * The toolkit is set up the same way as for the UI tests (see {@link HeadlessToolkit}).
+	 *
+	 * @return The toolkit's primary stage.
+	 * @throws TimeoutException if the toolkit startup times out.
+	 */
+	static synchronized Stage start() throws TimeoutException {
+		return HeadlessToolkit.setUp();
+	}
+
+}
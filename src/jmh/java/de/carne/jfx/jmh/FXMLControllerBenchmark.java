@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.jmh;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.carne.boot.Exceptions;
+import de.carne.jfx.application.PlatformHelper;
+import de.carne.jfx.fxml.FXMLCache;
+import de.carne.jfx.scene.control.DialogController;
+import de.carne.jfx.scene.control.aboutinfo.AboutInfoController;
+import de.carne.jfx.stage.StageController;
+import de.carne.jfx.stage.logview.LogViewController;
+import de.carne.util.Late;
+import javafx.scene.control.Dialog;
+import javafx.stage.Stage;
+
+/**
+ * Benchmarks for {@link de.carne.jfx.fxml.FXMLController} based UI loading of the bundled log view and about info
+ * FXML.
+ * <p>
+ * The UI is loaded on the JavaFX application thread; hence the measured times include the
+ * {@link PlatformHelper#runLater(java.util.function.Supplier)} round-trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FXMLControllerBenchmark {
+
+	/**
+	 * Whether the {@link FXMLCache} is enabled or not.
+	 */
+	@Param({ "true", "false" })
+	public boolean fxmlCache;
+
+	private final Late<Stage> ownerParam = new Late<>();
+
+	/**
+	 * Start the toolkit and setup the FXML cache.
+	 *
+	 * @throws TimeoutException if the toolkit startup times out.
+	 */
+	@Setup
+	public void setup() throws TimeoutException {
+		this.ownerParam.set(BenchmarkToolkit.start());
+		FXMLCache.clear();
+		FXMLCache.setLimit(this.fxmlCache ? FXMLCache.DEFAULT_LIMIT : 0);
+	}
+
+	/**
+	 * Load the log view UI.
+	 *
+	 * @return The loaded controller.
+	 */
+	@Benchmark
+	public LogViewController loadLogView() {
+		return PlatformHelper.runLater(() -> {
+			try {
+				return StageController.loadPrimaryStage(new Stage(), LogViewController.class);
+			} catch (IOException e) {
+				throw Exceptions.toRuntime(e);
+			}
+		});
+	}
+
+	/**
+	 * Load the about info UI.
+	 *
+	 * @return The loaded controller.
+	 */
+	@Benchmark
+	public AboutInfoController loadAboutInfo() {
+		return PlatformHelper.runLater(() -> {
+			try {
+				return DialogController.loadDialog(this.ownerParam.get(), c -> new Dialog<>(), AboutInfoController.class);
+			} catch (IOException e) {
+				throw Exceptions.toRuntime(e);
+			}
+		});
+	}
+
+}
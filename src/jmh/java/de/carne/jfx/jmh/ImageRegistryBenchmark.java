@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.carne.jfx.scene.image.ImageRegistry;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Benchmarks for {@link ImageRegistry#getImage(Object, double)} at varying registry sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ImageRegistryBenchmark {
+
+	private static final int[] IMAGE_SIZES = { 16, 24, 32, 48, 64 };
+
+	/**
+	 * The number of keys in the registry.
+	 */
+	@Param({ "1", "64", "4096" })
+	public int registrySize;
+
+	private final ImageRegistry<Integer> registry = new ImageRegistry<>();
+
+	private Integer[] keys = new Integer[0];
+
+	private int keyIndex = 0;
+
+	/**
+	 * Populate the registry.
+	 *
+	 * @throws TimeoutException if the toolkit startup times out.
+	 */
+	@Setup
+	public void setup() throws TimeoutException {
+		BenchmarkToolkit.start();
+		this.keys = new Integer[this.registrySize];
+		for (int keyIndex = 0; keyIndex < this.registrySize; keyIndex++) {
+			Integer key = Integer.valueOf(keyIndex);
+
+			this.keys[keyIndex] = key;
+			for (int imageSize : IMAGE_SIZES) {
+				this.registry.registerImage(key, new WritableImage(imageSize, imageSize));
+			}
+		}
+	}
+
+	/**
+	 * Look up an image by exactly matching size.
+	 *
+	 * @return The found image.
+	 */
+	@Benchmark
+	public Image getImageExactSize() {
+		return this.registry.getImage(nextKey(), 32.0);
+	}
+
+	/**
+	 * Look up an image by non-matching size.
+	 *
+	 * @return The found image.
+	 */
+	@Benchmark
+	public Image getImageNearestSize() {
+		return this.registry.getImage(nextKey(), 40.0);
+	}
+
+	private Integer nextKey() {
+		Integer key = this.keys[this.keyIndex];
+
+		this.keyIndex = (this.keyIndex + 1) % this.keys.length;
+		return key;
+	}
+
+}
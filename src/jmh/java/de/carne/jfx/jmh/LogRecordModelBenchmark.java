@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogRecord;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.carne.boot.logging.LogLevel;
+import de.carne.jfx.stage.logview.LogRecordModel;
+
+/**
+ * Benchmarks for {@link LogRecordModel} construction.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LogRecordModelBenchmark {
+
+	private final LogRecord record;
+
+	/**
+	 * Construct {@code LogRecordModelBenchmark}.
+	 */
+	public LogRecordModelBenchmark() {
+		this.record = new LogRecord(LogLevel.LEVEL_INFO, "Benchmark message {0} of {1}");
+		this.record.setParameters(new Object[] { Integer.valueOf(1), Integer.valueOf(2) });
+	}
+
+	/**
+	 * Construct a model (as done for every published log record).
+	 *
+	 * @return The constructed model.
+	 */
+	@Benchmark
+	public LogRecordModel construct() {
+		return new LogRecordModel(this.record);
+	}
+
+	/**
+	 * Construct a model and access its displayed text values (as done for every rendered log record).
+	 *
+	 * @return The accessed message.
+	 */
+	@Benchmark
+	public String constructAndRender() {
+		LogRecordModel model = new LogRecordModel(this.record);
+
+		model.getTime().toString();
+		model.getThread();
+		return model.getMessage();
+	}
+
+}
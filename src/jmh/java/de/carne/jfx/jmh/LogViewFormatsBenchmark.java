@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogRecord;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.carne.boot.logging.LogLevel;
+import de.carne.jfx.stage.logview.LogTimeFormat;
+import de.carne.jfx.stage.logview.LogViewFormats;
+
+/**
+ * Benchmarks for {@link LogViewFormats} based message and time formatting.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LogViewFormatsBenchmark {
+
+	private final LogRecord plainRecord = new LogRecord(LogLevel.LEVEL_INFO, "Benchmark message");
+
+	private final LogRecord parameterizedRecord = new LogRecord(LogLevel.LEVEL_INFO, "Benchmark message {0} of {1}");
+
+	private final char[] timeBuffer = new char[LogTimeFormat.LENGTH];
+
+	private long millis = System.currentTimeMillis();
+
+	/**
+	 * Construct {@code LogViewFormatsBenchmark}.
+	 */
+	public LogViewFormatsBenchmark() {
+		this.parameterizedRecord.setParameters(new Object[] { Integer.valueOf(1), Integer.valueOf(2) });
+	}
+
+	/**
+	 * Format a message without parameters.
+	 *
+	 * @return The formatted message.
+	 */
+	@Benchmark
+	public String formatPlainMessage() {
+		return LogViewFormats.MESSAGE_FORMAT.format(this.plainRecord);
+	}
+
+	/**
+	 * Format a message with parameters.
+	 *
+	 * @return The formatted message.
+	 */
+	@Benchmark
+	public String formatParameterizedMessage() {
+		return LogViewFormats.MESSAGE_FORMAT.format(this.parameterizedRecord);
+	}
+
+	/**
+	 * Format a time to a string.
+	 *
+	 * @return The formatted time.
+	 */
+	@Benchmark
+	public String formatTime() {
+		return LogViewFormats.TIME_FORMATTER.format(this.millis++);
+	}
+
+	/**
+	 * Format a time to a buffer.
+	 *
+	 * @return The buffer containing the formatted time.
+	 */
+	@Benchmark
+	public char[] formatTimeToBuffer() {
+		LogViewFormats.TIME_FORMATTER.format(this.millis++, this.timeBuffer, 0);
+		return this.timeBuffer;
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.carne.jfx.application.PlatformHelper;
+
+/**
+ * Benchmarks for the {@link PlatformHelper#runLater(Runnable)} round-trip latency (using a headless toolkit by
+ * default).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PlatformHelperBenchmark {
+
+	private int counter = 0;
+
+	/**
+	 * Start the toolkit.
+	 *
+	 * @throws TimeoutException if the toolkit startup times out.
+	 */
+	@Setup
+	public void setup() throws TimeoutException {
+		BenchmarkToolkit.start();
+	}
+
+	/**
+	 * Run a {@link Runnable} on the JavaFX application thread and wait for its completion.
+	 */
+	@Benchmark
+	public void runLaterRunnable() {
+		PlatformHelper.runLater(() -> {
+			this.counter++;
+		});
+	}
+
+	/**
+	 * Run a {@link java.util.function.Supplier} on the JavaFX application thread and wait for its result.
+	 *
+	 * @return The supplier's result.
+	 */
+	@Benchmark
+	public int runLaterSupplier() {
+		return PlatformHelper.runLater(() -> Integer.valueOf(this.counter++)).intValue();
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.application;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import de.carne.boot.logging.Log;
+import javafx.animation.AnimationTimer;
+
+/**
+ * Scheduler for coalescing UI updates submitted from arbitrary threads.
+ * <p>
+ * Updates are submitted by key. Only the latest value submitted for a key is kept and all pending updates are applied
+ * once per JavaFX pulse on the JavaFX application thread. Submitting an update never blocks the calling thread.
+ */
+public final class CoalescingScheduler {
+
+	private static final Log LOG = new Log();
+
+	private final Map<Object, Update<?>> pendingUpdates = new ConcurrentHashMap<>();
+
+	private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+	private final AnimationTimer flushTimer = new AnimationTimer() {
+
+		@Override
+		public void handle(long now) {
+			onFlush();
+		}
+
+	};
+
+	/**
+	 * Submit an update.
+	 * <p>
+	 * Any pending update for the same key is replaced by the submitted one.
+	 *
+	 * @param <T> The actual value type.
+	 * @param key The key identifying the update.
+	 * @param value The value to apply.
+	 * @param consumer The consumer to invoke on the JavaFX application thread for applying the value.
+	 */
+	public <T> void submit(Object key, T value, Consumer<? super T> consumer) {
+		this.pendingUpdates.put(key, new Update<>(value, consumer));
+		if (this.flushScheduled.compareAndSet(false, true)) {
+			PlatformHelper.platformRunLater(this.flushTimer::start);
+		}
+	}
+
+	/**
+	 * Discard any pending update for a key.
+	 *
+	 * @param key The key identifying the update.
+	 */
+	public void cancel(Object key) {
+		this.pendingUpdates.remove(key);
+	}
+
+	/**
+	 * Get the number of currently pending updates.
+	 *
+	 * @return The number of currently pending updates.
+	 */
+	public int pendingCount() {
+		return this.pendingUpdates.size();
+	}
+
+	private void onFlush() {
+		for (Map.Entry<Object, Update<?>> pendingUpdate : this.pendingUpdates.entrySet()) {
+			Update<?> update = pendingUpdate.getValue();
+
+			if (this.pendingUpdates.remove(pendingUpdate.getKey(), update)) {
+				try {
+					update.apply();
+				} catch (RuntimeException e) {
+					LOG.error(e, "Update ''{0}'' failed", pendingUpdate.getKey());
+				}
+			}
+		}
+		if (this.pendingUpdates.isEmpty()) {
+			this.flushTimer.stop();
+			this.flushScheduled.set(false);
+			// Restart in case an update has been submitted while we were stopping
+			if (!this.pendingUpdates.isEmpty() && this.flushScheduled.compareAndSet(false, true)) {
+				this.flushTimer.start();
+			}
+		}
+	}
+
+	private static final class Update<T> {
+
+		private final T value;
+
+		private final Consumer<? super T> consumer;
+
+		Update(T value, Consumer<? super T> consumer) {
+			this.value = value;
+			this.consumer = consumer;
+		}
+
+		void apply() {
+			this.consumer.accept(this.value);
+		}
+
+	}
+
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.application;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * JavaFX application thread responsiveness metrics collected by the {@link FXThreadMonitor}.
+ */
+public final class FXThreadMetrics {
+
+	private final LongAdder heartbeatCount = new LongAdder();
+
+	private final LongAdder heartbeatNanos = new LongAdder();
+
+	private final LongAccumulator maxHeartbeatNanos = new LongAccumulator(Math::max, 0);
+
+	private final LongAdder stallCount = new LongAdder();
+
+	private final Map<String, CallSite> callSites = new ConcurrentHashMap<>();
+
+	@Nullable
+	private volatile Stall lastStall = null;
+
+	FXThreadMetrics() {
+		// Only instantiated by FXThreadMonitor
+	}
+
+	void recordHeartbeat(long nanos) {
+		this.heartbeatCount.increment();
+		this.heartbeatNanos.add(nanos);
+		this.maxHeartbeatNanos.accumulate(nanos);
+	}
+
+	void recordStall(Stall stall) {
+		this.stallCount.increment();
+		this.lastStall = stall;
+	}
+
+	void recordCallSite(String callSite, long queueNanos, long runNanos) {
+		this.callSites.computeIfAbsent(callSite, CallSite::new).record(queueNanos, runNanos);
+	}
+
+	void reset() {
+		this.heartbeatCount.reset();
+		this.heartbeatNanos.reset();
+		this.maxHeartbeatNanos.reset();
+		this.stallCount.reset();
+		this.callSites.clear();
+		this.lastStall = null;
+	}
+
+	/**
+	 * Get the number of answered heartbeats.
+	 *
+	 * @return The number of answered heartbeats.
+	 */
+	public long heartbeatCount() {
+		return this.heartbeatCount.sum();
+	}
+
+	/**
+	 * Get the average time (in ms) the JavaFX application thread needed to answer a heartbeat.
+	 *
+	 * @return The average time (in ms) the JavaFX application thread needed to answer a heartbeat.
+	 */
+	public double averageHeartbeatMillis() {
+		return averageMillis(this.heartbeatNanos.sum(), this.heartbeatCount.sum());
+	}
+
+	/**
+	 * Get the maximum time (in ms) the JavaFX application thread needed to answer a heartbeat.
+	 *
+	 * @return The maximum time (in ms) the JavaFX application thread needed to answer a heartbeat.
+	 */
+	public double maxHeartbeatMillis() {
+		return millis(this.maxHeartbeatNanos.get());
+	}
+
+	/**
+	 * Get the number of detected stalls.
+	 *
+	 * @return The number of detected stalls.
+	 */
+	public long stallCount() {
+		return this.stallCount.sum();
+	}
+
+	/**
+	 * Get the most recently detected stall.
+	 *
+	 * @return The most recently detected stall or {@code null} if no stall has been detected yet.
+	 */
+	@Nullable
+	public Stall lastStall() {
+		return this.lastStall;
+	}
+
+	/**
+	 * Get the timing metrics of the work submitted via {@link PlatformHelper} (keyed by call site).
+	 * <p>
+	 * Call site timing must be enabled via {@link FXThreadMonitor#setCallSiteTiming(boolean)}.
+	 *
+	 * @return The timing metrics of the work submitted via {@link PlatformHelper}.
+	 */
+	public Map<String, CallSite> callSites() {
+		return Collections.unmodifiableMap(this.callSites);
+	}
+
+	static double millis(long nanos) {
+		return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	static double averageMillis(long nanos, long count) {
+		return (count > 0 ? millis(nanos) / count : 0.0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("heartbeats: %d (avg. %.2f ms / max. %.2f ms); stalls: %d; call sites: %d",
+				heartbeatCount(), averageHeartbeatMillis(), maxHeartbeatMillis(), stallCount(), this.callSites.size());
+	}
+
+	/**
+	 * A detected stall of the JavaFX application thread.
+	 */
+	public static final class Stall {
+
+		private final long timestamp;
+
+		private final long nanos;
+
+		private final StackTraceElement[] stackTrace;
+
+		Stall(long timestamp, long nanos, StackTraceElement[] stackTrace) {
+			this.timestamp = timestamp;
+			this.nanos = nanos;
+			this.stackTrace = stackTrace;
+		}
+
+		/**
+		 * Get the time (in ms since the epoch) the stall has been detected.
+		 *
+		 * @return The time (in ms since the epoch) the stall has been detected.
+		 */
+		public long timestamp() {
+			return this.timestamp;
+		}
+
+		/**
+		 * Get the stall's duration (in ms).
+		 *
+		 * @return The stall's duration (in ms).
+		 */
+		public double durationMillis() {
+			return millis(this.nanos);
+		}
+
+		/**
+		 * Get the JavaFX application thread's stack trace captured during the stall.
+		 *
+		 * @return The JavaFX application thread's stack trace captured during the stall (may be empty if the thread was
+		 * not yet known).
+		 */
+		public StackTraceElement[] stackTrace() {
+			return this.stackTrace.clone();
+		}
+
+		@Override
+		public String toString() {
+			return String.format("stall: %.2f ms", durationMillis());
+		}
+
+	}
+
+	/**
+	 * Timing metrics of the work submitted from a single call site.
+	 */
+	public static final class CallSite {
+
+		private final String name;
+
+		private final LongAdder count = new LongAdder();
+
+		private final LongAdder queueNanos = new LongAdder();
+
+		private final LongAdder runNanos = new LongAdder();
+
+		private final LongAccumulator maxRunNanos = new LongAccumulator(Math::max, 0);
+
+		CallSite(String name) {
+			this.name = name;
+		}
+
+		void record(long queued, long run) {
+			this.count.increment();
+			this.queueNanos.add(queued);
+			this.runNanos.add(run);
+			this.maxRunNanos.accumulate(run);
+		}
+
+		/**
+		 * Get the call site's name.
+		 *
+		 * @return The call site's name.
+		 */
+		public String name() {
+			return this.name;
+		}
+
+		/**
+		 * Get the number of executed submissions.
+		 *
+		 * @return The number of executed submissions.
+		 */
+		public long count() {
+			return this.count.sum();
+		}
+
+		/**
+		 * Get the average time (in ms) a submission waited for its execution.
+		 *
+		 * @return The average time (in ms) a submission waited for its execution.
+		 */
+		public double averageQueueMillis() {
+			return averageMillis(this.queueNanos.sum(), this.count.sum());
+		}
+
+		/**
+		 * Get the average execution time (in ms) of a submission.
+		 *
+		 * @return The average execution time (in ms) of a submission.
+		 */
+		public double averageRunMillis() {
+			return averageMillis(this.runNanos.sum(), this.count.sum());
+		}
+
+		/**
+		 * Get the maximum execution time (in ms) of a submission.
+		 *
+		 * @return The maximum execution time (in ms) of a submission.
+		 */
+		public double maxRunMillis() {
+			return millis(this.maxRunNanos.get());
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %d runs (queued avg. %.2f ms; run avg. %.2f ms / max. %.2f ms)", this.name,
+					count(), averageQueueMillis(), averageRunMillis(), maxRunMillis());
+		}
+
+	}
+
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.application;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import de.carne.boot.Exceptions;
+import de.carne.boot.logging.Log;
+import javafx.application.Platform;
+
+/**
+ * Instrumentation facility monitoring the responsiveness of the JavaFX application thread.
+ * <p>
+ * The monitor consists of the following parts:
+ * <ul>
+ * <li>A watchdog thread which periodically submits heartbeats to the JavaFX application thread and measures how fast
+ * they are answered.</li>
+ * <li>Stall capture: If a heartbeat is not answered within the stall threshold, the JavaFX application thread's stack
+ * is captured.</li>
+ * <li>Call site timing (optional): Work submitted via {@link PlatformHelper} is timed per call site.</li>
+ * </ul>
+ * The collected metrics are available via {@link #getMetrics()}. Stalls are logged if logging is enabled.
+ */
+public final class FXThreadMonitor {
+
+	private FXThreadMonitor() {
+		// Make sure this class is not instantiated from outside
+	}
+
+	private static final Log LOG = new Log();
+
+	private static final FXThreadMetrics METRICS = new FXThreadMetrics();
+
+	/**
+	 * Default interval (in ms) between two heartbeats.
+	 */
+	public static final long DEFAULT_HEARTBEAT_INTERVAL = 100;
+
+	/**
+	 * Default stall threshold (in ms).
+	 */
+	public static final long DEFAULT_STALL_THRESHOLD = 500;
+
+	private static final String FX_THREAD_NAME = "JavaFX Application Thread";
+
+	@Nullable
+	private static Watchdog watchdog = null;
+
+	private static volatile boolean callSiteTiming = false;
+
+	private static volatile boolean logging = true;
+
+	@Nullable
+	private static volatile Thread fxThread = null;
+
+	/**
+	 * Start the watchdog thread using the default heartbeat interval and stall threshold.
+	 */
+	public static void start() {
+		start(DEFAULT_HEARTBEAT_INTERVAL, DEFAULT_STALL_THRESHOLD, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Start the watchdog thread.
+	 * <p>
+	 * An already running watchdog thread is stopped first.
+	 *
+	 * @param heartbeatInterval The interval between two heartbeats.
+	 * @param stallThreshold The time after which an unanswered heartbeat is considered a stall.
+	 * @param unit The time unit of the interval and threshold.
+	 */
+	public static synchronized void start(long heartbeatInterval, long stallThreshold, TimeUnit unit) {
+		if (heartbeatInterval <= 0) {
+			throw new IllegalArgumentException("Invalid heartbeat interval: " + heartbeatInterval);
+		}
+		if (stallThreshold <= 0) {
+			throw new IllegalArgumentException("Invalid stall threshold: " + stallThreshold);
+		}
+		stop();
+		captureFxThread();
+
+		Watchdog newWatchdog = new Watchdog(unit.toNanos(heartbeatInterval), unit.toNanos(stallThreshold));
+		Thread watchdogThread = new Thread(newWatchdog, FXThreadMonitor.class.getSimpleName());
+
+		watchdogThread.setDaemon(true);
+		watchdogThread.start();
+		watchdog = newWatchdog;
+	}
+
+	/**
+	 * Stop the watchdog thread (if running).
+	 */
+	public static synchronized void stop() {
+		Watchdog checkedWatchdog = watchdog;
+
+		if (checkedWatchdog != null) {
+			checkedWatchdog.stop();
+			watchdog = null;
+			if (logging) {
+				LOG.info("JavaFX application thread metrics: {0}", METRICS);
+			}
+		}
+	}
+
+	/**
+	 * Check whether the watchdog thread is running.
+	 *
+	 * @return {@code true} if the watchdog thread is running.
+	 */
+	public static synchronized boolean isRunning() {
+		return watchdog != null;
+	}
+
+	/**
+	 * Enable or disable call site timing for the work submitted via {@link PlatformHelper} (disabled by default).
+	 * <p>
+	 * Determining the call site requires a stack trace per submission; hence call site timing should only be enabled
+	 * for diagnostic purposes.
+	 *
+	 * @param enabled Whether to enable call site timing or not.
+	 */
+	public static void setCallSiteTiming(boolean enabled) {
+		callSiteTiming = enabled;
+	}
+
+	/**
+	 * Enable or disable logging of the detected stalls (enabled by default).
+	 *
+	 * @param enabled Whether to enable logging or not.
+	 */
+	public static void setLogging(boolean enabled) {
+		logging = enabled;
+	}
+
+	/**
+	 * Get the collected metrics.
+	 *
+	 * @return The collected metrics.
+	 */
+	public static FXThreadMetrics getMetrics() {
+		return METRICS;
+	}
+
+	/**
+	 * Reset the collected metrics.
+	 */
+	public static void resetMetrics() {
+		METRICS.reset();
+	}
+
+	private static void captureFxThread() {
+		// Capture the JavaFX application thread up front to have a stack trace available even if the very first
+		// heartbeat stalls
+		if (Platform.isFxApplicationThread()) {
+			fxThread = Thread.currentThread();
+		} else if (fxThread == null) {
+			try {
+				Platform.runLater(() -> fxThread = Thread.currentThread());
+			} catch (IllegalStateException e) {
+				// Toolkit not yet initialized; rely on the lookup during stall detection
+				Exceptions.ignore(e);
+			}
+		}
+	}
+
+	private static StackTraceElement[] fxThreadStackTrace() {
+		Thread checkedFxThread = fxThread;
+
+		if (checkedFxThread == null) {
+			for (Thread thread : Thread.getAllStackTraces().keySet()) {
+				if (FX_THREAD_NAME.equals(thread.getName())) {
+					checkedFxThread = fxThread = thread;
+					break;
+				}
+			}
+		}
+		return (checkedFxThread != null ? checkedFxThread.getStackTrace() : new StackTraceElement[0]);
+	}
+
+	static Runnable instrument(Runnable runnable) {
+		if (!callSiteTiming) {
+			return runnable;
+		}
+
+		String callSite = callSite(new Throwable().getStackTrace());
+		long submitted = System.nanoTime();
+
+		return () -> {
+			long started = System.nanoTime();
+
+			try {
+				runnable.run();
+			} finally {
+				METRICS.recordCallSite(callSite, started - submitted, System.nanoTime() - started);
+			}
+		};
+	}
+
+	private static String callSite(StackTraceElement[] stackTrace) {
+		String callSite = "<unknown>";
+
+		for (StackTraceElement element : stackTrace) {
+			String className = element.getClassName();
+
+			if (!className.startsWith(PlatformHelper.class.getName())
+					&& !className.startsWith(FXThreadMonitor.class.getName())) {
+				callSite = className + "." + element.getMethodName() + ":" + element.getLineNumber();
+				break;
+			}
+		}
+		return callSite;
+	}
+
+	private static final class Watchdog implements Runnable {
+
+		private final long heartbeatIntervalNanos;
+
+		private final long stallThresholdNanos;
+
+		private volatile boolean running = true;
+
+		Watchdog(long heartbeatIntervalNanos, long stallThresholdNanos) {
+			this.heartbeatIntervalNanos = heartbeatIntervalNanos;
+			this.stallThresholdNanos = stallThresholdNanos;
+		}
+
+		void stop() {
+			this.running = false;
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (this.running) {
+					long sent = System.nanoTime();
+
+					heartbeat(sent);
+
+					long remaining = this.heartbeatIntervalNanos - (System.nanoTime() - sent);
+
+					if (remaining > 0) {
+						TimeUnit.NANOSECONDS.sleep(remaining);
+					}
+				}
+			} catch (InterruptedException e) {
+				Exceptions.ignore(e);
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		private void heartbeat(long sent) throws InterruptedException {
+			CountDownLatch answered = new CountDownLatch(1);
+
+			Platform.runLater(() -> {
+				fxThread = Thread.currentThread();
+				METRICS.recordHeartbeat(System.nanoTime() - sent);
+				answered.countDown();
+			});
+			if (!answered.await(this.stallThresholdNanos, TimeUnit.NANOSECONDS)) {
+				StackTraceElement[] stackTrace = fxThreadStackTrace();
+				long detected = System.currentTimeMillis();
+
+				while (this.running && !answered.await(this.heartbeatIntervalNanos, TimeUnit.NANOSECONDS)) {
+					// Wait until the stall is over to determine its duration
+				}
+
+				FXThreadMetrics.Stall stall = new FXThreadMetrics.Stall(detected, System.nanoTime() - sent, stackTrace);
+
+				METRICS.recordStall(stall);
+				if (logging) {
+					Throwable stack = new Throwable("JavaFX application thread stack at stall detection");
+
+					stack.setStackTrace(stackTrace);
+					LOG.warning(stack, "JavaFX application thread stalled for {0} ms",
+							String.format("%.0f", stall.durationMillis()));
+				}
+			}
+		}
+
+	}
+
+}
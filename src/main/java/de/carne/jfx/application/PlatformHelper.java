@@ -18,11 +18,19 @@ package de.carne.jfx.application;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import org.eclipse.jdt.annotation.Nullable;
+
 import de.carne.boot.Exceptions;
+import de.carne.util.Lazy;
 import javafx.application.Platform;
 import javafx.scene.image.Image;
 
@@ -35,6 +43,8 @@ public final class PlatformHelper {
 		// Make sure this class is not instantiated from outside
 	}
 
+	private static final Lazy<CoalescingScheduler> COALESCING_SCHEDULER = new Lazy<>(CoalescingScheduler::new);
+
 	/**
 	 * Wrap a {@link Runnable} to make sure it is always invoked on the JavaFX application thread.
 	 *
@@ -48,7 +58,7 @@ public final class PlatformHelper {
 			} else {
 				CountDownLatch latch = new CountDownLatch(1);
 
-				Platform.runLater(() -> {
+				platformRunLater(() -> {
 					try {
 						runnable.run();
 					} finally {
@@ -81,7 +91,7 @@ public final class PlatformHelper {
 			CountDownLatch latch = new CountDownLatch(1);
 			AtomicReference<R> resultHolder = new AtomicReference<>(null);
 
-			Platform.runLater(() -> {
+			platformRunLater(() -> {
 				try {
 					resultHolder.set(supplier.get());
 				} finally {
@@ -110,7 +120,7 @@ public final class PlatformHelper {
 		} else {
 			CountDownLatch latch = new CountDownLatch(1);
 
-			Platform.runLater(() -> {
+			platformRunLater(() -> {
 				try {
 					runnable.run();
 				} finally {
@@ -126,6 +136,125 @@ public final class PlatformHelper {
 		}
 	}
 
+	/**
+	 * Make sure a {@link Runnable} is invoked on the JavaFX application thread without waiting for it to complete.
+	 * <p>
+	 * If called from the JavaFX application thread, the runnable is invoked immediately.
+	 *
+	 * @param runnable The runnable to invoke.
+	 * @return The {@link CompletableFuture} which is completed on the JavaFX application thread as soon as the
+	 * runnable has been invoked.
+	 */
+	public static CompletableFuture<@Nullable Void> runLaterAsync(Runnable runnable) {
+		return supplyLaterAsync(() -> {
+			runnable.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Make sure a {@link Supplier} is invoked on the JavaFX application thread without waiting for it to complete.
+	 * <p>
+	 * If called from the JavaFX application thread, the supplier is invoked immediately.
+	 *
+	 * @param <R> The actual result type.
+	 * @param supplier The supplier to invoke.
+	 * @return The {@link CompletableFuture} which is completed on the JavaFX application thread with the supplier
+	 * result.
+	 */
+	public static <R> CompletableFuture<R> supplyLaterAsync(Supplier<R> supplier) {
+		CompletableFuture<R> future = new CompletableFuture<>();
+
+		if (Platform.isFxApplicationThread()) {
+			supplyTo(future, supplier);
+		} else {
+			platformRunLater(() -> supplyTo(future, supplier));
+		}
+		return future;
+	}
+
+	static void platformRunLater(Runnable runnable) {
+		Platform.runLater(FXThreadMonitor.instrument(runnable));
+	}
+
+	private static <R> void supplyTo(CompletableFuture<R> future, Supplier<R> supplier) {
+		if (!future.isDone()) {
+			try {
+				future.complete(supplier.get());
+			} catch (Throwable e) {
+				// Complete the future in any case, as waiting threads would otherwise never be released
+				future.completeExceptionally(e);
+				if (e instanceof Error) {
+					throw (Error) e;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Make sure a {@link Runnable} is always invoked on the JavaFX application thread and wait a limited time for it to
+	 * complete.
+	 * <p>
+	 * If the timeout is exceeded the runnable is cancelled (in case it has not yet been started).
+	 *
+	 * @param runnable The runnable to invoke.
+	 * @param timeout The maximum time to wait.
+	 * @param unit The timeout's time unit.
+	 * @throws TimeoutException if the timeout is exceeded.
+	 * @throws InterruptedException if the calling thread has been interrupted while waiting.
+	 */
+	public static void runLater(Runnable runnable, long timeout, TimeUnit unit)
+			throws TimeoutException, InterruptedException {
+		await(runLaterAsync(runnable), timeout, unit);
+	}
+
+	/**
+	 * Make sure a {@link Supplier} is always invoked on the JavaFX application thread and wait a limited time for it to
+	 * complete.
+	 * <p>
+	 * If the timeout is exceeded the supplier is cancelled (in case it has not yet been started).
+	 *
+	 * @param <R> The actual result type.
+	 * @param supplier The supplier to invoke.
+	 * @param timeout The maximum time to wait.
+	 * @param unit The timeout's time unit.
+	 * @return The supplier result.
+	 * @throws TimeoutException if the timeout is exceeded.
+	 * @throws InterruptedException if the calling thread has been interrupted while waiting.
+	 */
+	public static <R> R runLater(Supplier<R> supplier, long timeout, TimeUnit unit)
+			throws TimeoutException, InterruptedException {
+		return await(supplyLaterAsync(supplier), timeout, unit);
+	}
+
+	private static <R> R await(CompletableFuture<R> future, long timeout, TimeUnit unit)
+			throws TimeoutException, InterruptedException {
+		try {
+			return future.get(timeout, unit);
+		} catch (TimeoutException | InterruptedException e) {
+			future.cancel(false);
+			throw e;
+		} catch (ExecutionException e) {
+			throw Exceptions.toRuntime(e.getCause());
+		}
+	}
+
+	/**
+	 * Submit a coalescing UI update to the shared {@link CoalescingScheduler}.
+	 * <p>
+	 * Only the latest value submitted for a key is applied during the next JavaFX pulse. This function never blocks
+	 * the calling thread.
+	 *
+	 * @param <T> The actual value type.
+	 * @param key The key identifying the update.
+	 * @param value The value to apply.
+	 * @param consumer The consumer to invoke on the JavaFX application thread for applying the value.
+	 * @see CoalescingScheduler#submit(Object, Object, Consumer)
+	 */
+	public static <T> void runLaterCoalesced(Object key, T value, Consumer<? super T> consumer) {
+		COALESCING_SCHEDULER.get().submit(key, value, consumer);
+	}
+
 	private static final Image[] EMPTY_ICONS = new Image[0];
 
 	/**
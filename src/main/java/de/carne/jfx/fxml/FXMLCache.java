@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.fxml;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ResourceBundle;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import de.carne.boot.logging.Log;
+
+/**
+ * Cache for the resources needed to load a {@link FXMLController} based UI.
+ * <p>
+ * For every controller class the resolved FXML resource URL, the resource bundle as well as the FXML resource content
+ * are cached. Hence repeated loads of the same UI skip the controller name resolution as well as the resource lookup
+ * and read operations. The cache holds a limited number of controller classes and evicts the least recently used ones
+ * first.
+ */
+public final class FXMLCache {
+
+	private FXMLCache() {
+		// Make sure this class is not instantiated from outside
+	}
+
+	private static final Log LOG = new Log();
+
+	private static final Pattern CONTROLLER_NAME_PATTERN = Pattern.compile("^(.*)\\.(.+)Controller$");
+
+	/**
+	 * Default maximum number of cached controller classes.
+	 */
+	public static final int DEFAULT_LIMIT = 64;
+
+	private static int limit = DEFAULT_LIMIT;
+
+	private static final Map<Class<?>, Resources> CACHE = new LinkedHashMap<Class<?>, Resources>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.@Nullable Entry<Class<?>, Resources> eldest) {
+			return size() > limit;
+		}
+
+	};
+
+	/**
+	 * Set the maximum number of cached controller classes.
+	 * <p>
+	 * A limit of {@code 0} disables caching.
+	 *
+	 * @param newLimit The limit to set.
+	 */
+	public static void setLimit(int newLimit) {
+		if (newLimit < 0) {
+			throw new IllegalArgumentException("Invalid limit: " + newLimit);
+		}
+		synchronized (CACHE) {
+			limit = newLimit;
+			if (CACHE.size() > newLimit) {
+				CACHE.clear();
+			}
+		}
+	}
+
+	/**
+	 * Discard all cached entries.
+	 * <p>
+	 * Invoke this function to make sure modified FXML and resource bundle resources are picked up (e.g. during
+	 * development).
+	 */
+	public static void clear() {
+		synchronized (CACHE) {
+			CACHE.clear();
+		}
+		ResourceBundle.clearCache();
+	}
+
+	static Resources get(Class<?> controllerClass) throws IOException {
+		Resources resources;
+
+		synchronized (CACHE) {
+			resources = CACHE.get(controllerClass);
+		}
+		if (resources == null) {
+			resources = new Resources(controllerClass);
+			synchronized (CACHE) {
+				if (limit > 0) {
+					CACHE.put(controllerClass, resources);
+				}
+			}
+		}
+		return resources;
+	}
+
+	static final class Resources {
+
+		private final URL fxmlUrl;
+
+		private final String bundleName;
+
+		private final byte[] fxmlContent;
+
+		@Nullable
+		private Locale bundleLocale = null;
+
+		@Nullable
+		private ResourceBundle bundle = null;
+
+		Resources(Class<?> controllerClass) throws IOException {
+			String controllerName = controllerClass.getName();
+			Matcher controllerNameMatcher = CONTROLLER_NAME_PATTERN.matcher(controllerName);
+
+			if (!controllerNameMatcher.find()) {
+				throw new IllegalArgumentException("Invalid controller class name: " + controllerName);
+			}
+
+			String baseName = controllerNameMatcher.group(2);
+			String fxmlResourceName = baseName + ".fxml";
+			String packageName = controllerNameMatcher.group(1);
+
+			this.fxmlUrl = Objects.requireNonNull(controllerClass.getResource(fxmlResourceName));
+			this.bundleName = packageName + "." + baseName + "I18N";
+
+			LOG.debug("Caching FXML resource: {0}", this.fxmlUrl);
+
+			try (InputStream fxmlStream = this.fxmlUrl.openStream();
+					ByteArrayOutputStream fxmlBuffer = new ByteArrayOutputStream()) {
+				byte[] buffer = new byte[4096];
+				int read;
+
+				while ((read = fxmlStream.read(buffer)) >= 0) {
+					fxmlBuffer.write(buffer, 0, read);
+				}
+				this.fxmlContent = fxmlBuffer.toByteArray();
+			}
+		}
+
+		URL fxmlUrl() {
+			return this.fxmlUrl;
+		}
+
+		InputStream fxmlStream() {
+			return new ByteArrayInputStream(this.fxmlContent);
+		}
+
+		synchronized ResourceBundle bundle() {
+			Locale locale = Locale.getDefault();
+			ResourceBundle checkedBundle = this.bundle;
+
+			if (checkedBundle == null || !locale.equals(this.bundleLocale)) {
+				checkedBundle = this.bundle = ResourceBundle.getBundle(this.bundleName, locale);
+				this.bundleLocale = locale;
+			}
+			return checkedBundle;
+		}
+
+	}
+
+}
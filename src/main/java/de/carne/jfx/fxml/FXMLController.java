@@ -17,11 +17,18 @@
 package de.carne.jfx.fxml;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
 import java.util.Objects;
 import java.util.ResourceBundle;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.Nullable;
 
@@ -41,6 +48,7 @@ import javafx.stage.Window;
  * <li>MyStage.fxml (FXML resource defining the stage content)</li>
  * <li>MyStageI18N*.properties (resource bundle)</li>
  * </ul>
+ * The resolved resources are cached by {@link FXMLCache}.
  *
  * @param <U> The actual JavaFX UI type.
  */
@@ -48,7 +56,11 @@ public abstract class FXMLController<U> {
 
 	private static final Log LOG = new Log();
 
-	private static final Pattern CONTROLLER_NAME_PATTERN = Pattern.compile("^(.*)\\.(.+)Controller$");
+	private static final FXMLLoadMetrics LOAD_METRICS = new FXMLLoadMetrics();
+
+	private static final Map<Class<?>, CompletableFuture<LoadedUI>> PRELOADED_UIS = new ConcurrentHashMap<>();
+
+	private static volatile Executor preloadExecutor = ForkJoinPool.commonPool();
 
 	@Nullable
 	private ResourceBundle resources = null;
@@ -105,35 +117,138 @@ public abstract class FXMLController<U> {
 	protected static <U, C extends FXMLController<U>> C loadUI(@Nullable Window owner, Function<C, U> uiFactory,
 			Class<C> controllerClass) throws IOException {
 
-		String controllerName = controllerClass.getName();
-
-		LOG.debug("Loading UI for controller: {0}", controllerName);
+		LOG.debug("Loading UI for controller: {0}", controllerClass.getName());
 
-		Matcher controllerNameMatcher = CONTROLLER_NAME_PATTERN.matcher(controllerName);
+		long loadStart = System.nanoTime();
+		LoadedUI loadedUI = takePreloadedUI(controllerClass);
+		boolean preloaded = loadedUI != null;
 
-		if (!controllerNameMatcher.find()) {
-			throw new IllegalArgumentException("Invalid controller class name: " + controllerName);
+		if (loadedUI == null) {
+			loadedUI = new LoadedUI(controllerClass);
 		}
 
-		String baseName = controllerNameMatcher.group(2);
-		String fxmlResourceName = baseName + ".fxml";
-		String packageName = controllerNameMatcher.group(1);
-		String bundleName = packageName + "." + baseName + "I18N";
-		ResourceBundle bundle = ResourceBundle.getBundle(bundleName);
-		FXMLLoader loader = new FXMLLoader(Objects.requireNonNull(controllerClass.getResource(fxmlResourceName)),
-				bundle);
-		Parent fxmlRoot = loader.load();
-		C controller = loader.getController();
+		Parent fxmlRoot = loadedUI.fxmlRoot();
+		C controller = controllerClass.cast(loadedUI.controller());
 
-		controller.setResources(loader.getResources());
+		controller.setResources(loadedUI.resources());
 
 		U ui = uiFactory.apply(controller);
 
 		controller.setUI(ui);
 		controller.setupUI(owner, ui, fxmlRoot);
+
+		long loadNanos = System.nanoTime() - loadStart;
+
+		if (preloaded) {
+			LOAD_METRICS.recordPreloadedLoad(loadNanos);
+		} else {
+			LOAD_METRICS.recordDirectLoad(loadNanos);
+		}
+		LOG.debug("Loaded UI for controller: {0} ({1} ms{2})", controllerClass.getName(), loadNanos / 1000000,
+				(preloaded ? "; preloaded" : ""));
 		return controller;
 	}
 
+	/**
+	 * Set the {@link Executor} used for preloading UIs in the background.
+	 * <p>
+	 * The default is to use the {@link ForkJoinPool#commonPool()}.
+	 *
+	 * @param executor The {@link Executor} to use.
+	 */
+	public static void setPreloadExecutor(Executor executor) {
+		preloadExecutor = executor;
+	}
+
+	/**
+	 * Preload the UI for one or more controller classes in the background.
+	 * <p>
+	 * Loading the FXML and instantiating the scene content is performed by the preload executor. The next
+	 * {@link #loadUI(Window, Function, Class)} call for a preloaded controller class only attaches the preloaded scene
+	 * content. Every preloaded UI is used once. If the preload has not yet finished or failed, the UI is loaded as
+	 * usual.
+	 *
+	 * @param controllerClasses The controller classes to preload.
+	 * @see #setPreloadExecutor(Executor)
+	 */
+	protected static void preloadUI(Class<?>... controllerClasses) {
+		Executor executor = preloadExecutor;
+
+		for (Class<?> controllerClass : controllerClasses) {
+			PRELOADED_UIS.computeIfAbsent(controllerClass, key -> CompletableFuture.supplyAsync(() -> {
+				LOG.debug("Preloading UI for controller: {0}", key.getName());
+
+				long preloadStart = System.nanoTime();
+				LoadedUI loadedUI;
+
+				try {
+					loadedUI = new LoadedUI(key);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				LOAD_METRICS.recordPreload(System.nanoTime() - preloadStart);
+				return loadedUI;
+			}, executor));
+		}
+	}
+
+	/**
+	 * Get the metrics collected during UI loading.
+	 *
+	 * @return The metrics collected during UI loading.
+	 */
+	public static FXMLLoadMetrics getLoadMetrics() {
+		return LOAD_METRICS;
+	}
+
+	@Nullable
+	private static LoadedUI takePreloadedUI(Class<?> controllerClass) {
+		CompletableFuture<LoadedUI> preloadedUI = PRELOADED_UIS.get(controllerClass);
+		LoadedUI loadedUI = null;
+
+		if (preloadedUI != null && preloadedUI.isDone() && PRELOADED_UIS.remove(controllerClass, preloadedUI)) {
+			try {
+				loadedUI = preloadedUI.getNow(null);
+			} catch (CompletionException | CancellationException e) {
+				LOG.warning(e, "Preloading of UI for controller: {0} failed", controllerClass.getName());
+			}
+		}
+		return loadedUI;
+	}
+
+	private static final class LoadedUI {
+
+		private final Parent fxmlRoot;
+
+		private final Object controller;
+
+		private final ResourceBundle resources;
+
+		LoadedUI(Class<?> controllerClass) throws IOException {
+			FXMLCache.Resources cachedResources = FXMLCache.get(controllerClass);
+			FXMLLoader loader = new FXMLLoader(cachedResources.fxmlUrl(), cachedResources.bundle());
+
+			try (InputStream fxmlStream = cachedResources.fxmlStream()) {
+				this.fxmlRoot = loader.load(fxmlStream);
+			}
+			this.controller = Objects.requireNonNull(loader.getController());
+			this.resources = Objects.requireNonNull(loader.getResources());
+		}
+
+		Parent fxmlRoot() {
+			return this.fxmlRoot;
+		}
+
+		Object controller() {
+			return this.controller;
+		}
+
+		ResourceBundle resources() {
+			return this.resources;
+		}
+
+	}
+
 	/**
 	 * This function is called during UI initialization to perform the actual UI setup.
 	 *
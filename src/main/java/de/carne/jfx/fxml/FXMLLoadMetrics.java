@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.fxml;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timing metrics for {@link FXMLController} based UI loading.
+ * <p>
+ * Loads are split into preloaded ones (FXML parsed in the background and only attached on the JavaFX application
+ * thread) and direct ones (FXML parsed on the calling thread).
+ */
+public final class FXMLLoadMetrics {
+
+	private final LongAdder directLoadCount = new LongAdder();
+
+	private final LongAdder directLoadNanos = new LongAdder();
+
+	private final LongAdder preloadCount = new LongAdder();
+
+	private final LongAdder preloadNanos = new LongAdder();
+
+	private final LongAdder preloadedLoadCount = new LongAdder();
+
+	private final LongAdder preloadedLoadNanos = new LongAdder();
+
+	FXMLLoadMetrics() {
+		// Only instantiated by FXMLController
+	}
+
+	void recordDirectLoad(long nanos) {
+		this.directLoadCount.increment();
+		this.directLoadNanos.add(nanos);
+	}
+
+	void recordPreload(long nanos) {
+		this.preloadCount.increment();
+		this.preloadNanos.add(nanos);
+	}
+
+	void recordPreloadedLoad(long nanos) {
+		this.preloadedLoadCount.increment();
+		this.preloadedLoadNanos.add(nanos);
+	}
+
+	/**
+	 * Get the number of UI loads performed without a preloaded UI.
+	 *
+	 * @return The number of UI loads performed without a preloaded UI.
+	 */
+	public long directLoadCount() {
+		return this.directLoadCount.sum();
+	}
+
+	/**
+	 * Get the average time (in ms) of a UI load performed without a preloaded UI.
+	 *
+	 * @return The average time (in ms) of a UI load performed without a preloaded UI.
+	 */
+	public double averageDirectLoadMillis() {
+		return averageMillis(this.directLoadNanos.sum(), this.directLoadCount.sum());
+	}
+
+	/**
+	 * Get the number of background preloads performed.
+	 *
+	 * @return The number of background preloads performed.
+	 */
+	public long preloadCount() {
+		return this.preloadCount.sum();
+	}
+
+	/**
+	 * Get the average time (in ms) of a background preload.
+	 *
+	 * @return The average time (in ms) of a background preload.
+	 */
+	public double averagePreloadMillis() {
+		return averageMillis(this.preloadNanos.sum(), this.preloadCount.sum());
+	}
+
+	/**
+	 * Get the number of UI loads which used a preloaded UI.
+	 *
+	 * @return The number of UI loads which used a preloaded UI.
+	 */
+	public long preloadedLoadCount() {
+		return this.preloadedLoadCount.sum();
+	}
+
+	/**
+	 * Get the average time (in ms) of a UI load which used a preloaded UI.
+	 *
+	 * @return The average time (in ms) of a UI load which used a preloaded UI.
+	 */
+	public double averagePreloadedLoadMillis() {
+		return averageMillis(this.preloadedLoadNanos.sum(), this.preloadedLoadCount.sum());
+	}
+
+	private static double averageMillis(long nanos, long count) {
+		return (count > 0 ? (double) nanos / count / TimeUnit.MILLISECONDS.toNanos(1) : 0.0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"direct: %d loads (avg. %.2f ms); preloaded: %d loads (avg. %.2f ms) / %d preloads (avg. %.2f ms)",
+				directLoadCount(), averageDirectLoadMillis(), preloadedLoadCount(), averagePreloadedLoadMillis(),
+				preloadCount(), averagePreloadMillis());
+	}
+
+}
@@ -60,6 +60,20 @@ public abstract class DialogController<R> extends FXMLController<Dialog<R>> {
 		return loadUI(owner, dialogFactory, controllerClass);
 	}
 
+	/**
+	 * Preload the dialog content for one or more dialog controller classes in the background.
+	 * <p>
+	 * A following {@link #loadDialog(Window, Function, Class)} call for a preloaded controller class only attaches the
+	 * already loaded dialog content to the dialog.
+	 *
+	 * @param controllerClasses The controller classes to preload.
+	 * @see FXMLController#preloadUI(Class...)
+	 */
+	@SafeVarargs
+	public static void preload(Class<? extends DialogController<?>>... controllerClasses) {
+		preloadUI(controllerClasses);
+	}
+
 	@Override
 	public final Window getWindow() {
 		return getUI().getDialogPane().getScene().getWindow();
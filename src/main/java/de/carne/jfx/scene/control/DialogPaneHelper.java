@@ -22,15 +22,18 @@ import java.util.logging.LogRecord;
 import org.eclipse.jdt.annotation.Nullable;
 
 import de.carne.boot.Exceptions;
-import de.carne.jfx.stage.logview.LogViewFormats;
-import de.carne.jfx.stage.logview.LogViewImages;
+import de.carne.jfx.scene.control.cell.LogRecordListCell;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.scene.control.DialogPane;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
-import javafx.scene.control.TextArea;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
 import javafx.scene.layout.AnchorPane;
 
 /**
@@ -42,32 +45,110 @@ public final class DialogPaneHelper {
 		// Make sure this class is not instantiated from outside
 	}
 
-	private static final double IMAGE_SIZE16 = 16.0;
+	private static final KeyCombination COPY_KEY_COMBINATION = new KeyCodeCombination(KeyCode.C,
+			KeyCombination.SHORTCUT_DOWN);
+
+	/**
+	 * Default maximum number of stack frames rendered by {@link #setExceptionContent(DialogPane, Throwable)}.
+	 */
+	public static final int DEFAULT_STACK_FRAME_LIMIT = 1000;
 
 	/**
 	 * Add an {@link Exception}'s stack trace to a {@link DialogPane} as an expandable content.
+	 * <p>
+	 * At most {@link #DEFAULT_STACK_FRAME_LIMIT} stack frames are rendered.
 	 *
 	 * @param dialogPane The dialog pane to add the exception to.
 	 * @param exception The exception to add (may be {@code null}).
 	 * @see DialogPane#setExpandableContent(javafx.scene.Node)
 	 */
 	public static void setExceptionContent(DialogPane dialogPane, @Nullable Throwable exception) {
-		if (exception != null) {
-			TextArea traceView = new TextArea(Exceptions.getStackTrace(exception));
-
-			traceView.setEditable(false);
-			traceView.setBackground(dialogPane.getBackground());
+		setExceptionContent(dialogPane, exception, DEFAULT_STACK_FRAME_LIMIT);
+	}
 
-			AnchorPane traceViewPane = new AnchorPane(traceView);
+	/**
+	 * Add an {@link Exception}'s stack trace to a {@link DialogPane} as an expandable content.
+	 * <p>
+	 * The stack trace view is created on first expansion of the dialog pane. Recurring frame sequences are folded and
+	 * the individual cause sections can be collapsed by clicking their header line. The complete stack trace can be
+	 * copied to the clipboard via the shortcut key combination (e.g. Ctrl+C).
+	 *
+	 * @param dialogPane The dialog pane to add the exception to.
+	 * @param exception The exception to add (may be {@code null}).
+	 * @param frameLimit The maximum number of stack frames to render.
+	 * @see DialogPane#setExpandableContent(javafx.scene.Node)
+	 */
+	public static void setExceptionContent(DialogPane dialogPane, @Nullable Throwable exception, int frameLimit) {
+		if (frameLimit < 0) {
+			throw new IllegalArgumentException("Invalid frame limit: " + frameLimit);
+		}
+		if (exception != null) {
+			AnchorPane traceViewPane = new AnchorPane();
+
+			if (dialogPane.isExpanded()) {
+				addTraceView(dialogPane, traceViewPane, exception, frameLimit);
+			} else {
+				dialogPane.expandedProperty().addListener(new ChangeListener<Boolean>() {
+
+					@Override
+					public void changed(@Nullable ObservableValue<? extends Boolean> observable,
+							@Nullable Boolean oldValue, @Nullable Boolean newValue) {
+						if (Boolean.TRUE.equals(newValue)) {
+							dialogPane.expandedProperty().removeListener(this);
+							addTraceView(dialogPane, traceViewPane, exception, frameLimit);
+						}
+					}
 
-			AnchorPane.setLeftAnchor(traceView, 0.0);
-			AnchorPane.setTopAnchor(traceView, 0.0);
-			AnchorPane.setRightAnchor(traceView, 0.0);
-			AnchorPane.setBottomAnchor(traceView, 0.0);
+				});
+			}
 			dialogPane.setExpandableContent(traceViewPane);
 		}
 	}
 
+	private static void addTraceView(DialogPane dialogPane, AnchorPane traceViewPane, Throwable exception,
+			int frameLimit) {
+		StackTraceLines traceLines = new StackTraceLines(exception, frameLimit);
+		ListView<StackTraceLines.Line> traceView = new ListView<>(traceLines.lines());
+
+		traceView.setCellFactory(param -> new ListCell<StackTraceLines.Line>() {
+
+			{
+				setOnMouseClicked(event -> traceLines.toggle(getItem()));
+			}
+
+			@Override
+			protected void updateItem(StackTraceLines.@Nullable Line item, boolean empty) {
+				super.updateItem(item, empty);
+				if (empty || item == null) {
+					setText(null);
+					setStyle(null);
+				} else {
+					setText(item.text());
+					setStyle(item.kind() == StackTraceLines.Kind.HEADER ? "-fx-font-weight: bold;" : null);
+				}
+			}
+
+		});
+		traceView.setOnKeyPressed(event -> {
+			if (COPY_KEY_COMBINATION.match(event)) {
+				ClipboardContent content = new ClipboardContent();
+
+				content.putString(Exceptions.getStackTrace(exception));
+				Clipboard.getSystemClipboard().setContent(content);
+				event.consume();
+			} else if (event.getCode() == KeyCode.ENTER || event.getCode() == KeyCode.SPACE) {
+				traceLines.toggle(traceView.getSelectionModel().getSelectedItem());
+				event.consume();
+			}
+		});
+		traceView.setBackground(dialogPane.getBackground());
+		traceViewPane.getChildren().add(traceView);
+		AnchorPane.setLeftAnchor(traceView, 0.0);
+		AnchorPane.setTopAnchor(traceView, 0.0);
+		AnchorPane.setRightAnchor(traceView, 0.0);
+		AnchorPane.setBottomAnchor(traceView, 0.0);
+	}
+
 	/**
 	 * Add a {@link LogRecord} list view to a {@link DialogPane} as an expandable content.
 	 *
@@ -79,23 +160,7 @@ public final class DialogPaneHelper {
 		if (logRecords != null && !logRecords.isEmpty()) {
 			ListView<LogRecord> logView = new ListView<>(FXCollections.observableArrayList(logRecords));
 
-			logView.setCellFactory((param) -> new ListCell<LogRecord>() {
-
-				@Override
-				protected void updateItem(@Nullable LogRecord item, boolean empty) {
-					super.updateItem(item, empty);
-					if (item != null) {
-						setText(LogViewFormats.MESSAGE_FORMAT.format(item));
-
-						Image itemImage = LogViewImages.LEVEL_IMAGES.getImage(item.getLevel(), IMAGE_SIZE16);
-
-						if (itemImage != null) {
-							setGraphic(new ImageView(itemImage));
-						}
-					}
-				}
-
-			});
+			logView.setCellFactory(LogRecordListCell.forListView());
 			logView.setBackground(dialogPane.getBackground());
 
 			AnchorPane logViewPane = new AnchorPane(logView);
@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.scene.control;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * Line based model of a {@link Throwable}'s stack trace suitable for display in a virtualized list.
+ * <p>
+ * In addition to the layout used by {@link Throwable#printStackTrace()} the model
+ * <ul>
+ * <li>folds recurring frame sequences (e.g. caused by deep recursion) into a single line,</li>
+ * <li>supports collapsing of the individual cause and suppressed sections and</li>
+ * <li>limits the total number of rendered frames.</li>
+ * </ul>
+ */
+final class StackTraceLines {
+
+	private static final String INDENT = "    ";
+
+	private static final int MAX_FOLD_PERIOD = 32;
+
+	/**
+	 * Line kinds.
+	 */
+	enum Kind {
+
+		/**
+		 * Section header (exception message).
+		 */
+		HEADER,
+
+		/**
+		 * Stack frame.
+		 */
+		FRAME,
+
+		/**
+		 * Summary line (folded, common or omitted frames).
+		 */
+		SUMMARY
+
+	}
+
+	/**
+	 * A single line of the stack trace.
+	 */
+	static final class Line {
+
+		private final Kind kind;
+
+		private final String text;
+
+		@Nullable
+		private final Section section;
+
+		Line(Kind kind, String text, @Nullable Section section) {
+			this.kind = kind;
+			this.text = text;
+			this.section = section;
+		}
+
+		Kind kind() {
+			return this.kind;
+		}
+
+		String text() {
+			String text = this.text;
+			Section checkedSection = this.section;
+
+			if (checkedSection != null) {
+				text = (checkedSection.collapsed ? "\u25B6 " : "\u25BC ") + text;
+			}
+			return text;
+		}
+
+		@Override
+		public String toString() {
+			return text();
+		}
+
+	}
+
+	private static final class Section {
+
+		final Line header;
+
+		final List<Line> lines = new ArrayList<>();
+
+		final List<Section> sections = new ArrayList<>();
+
+		boolean collapsed = false;
+
+		Section(String indent, String header) {
+			this.header = new Line(Kind.HEADER, indent + header, this);
+		}
+
+	}
+
+	private final ObservableList<Line> lines = FXCollections.observableArrayList();
+
+	private final Section root;
+
+	private int remainingFrames;
+
+	/**
+	 * Construct {@code StackTraceLines}.
+	 *
+	 * @param throwable The {@link Throwable} to display.
+	 * @param frameLimit The maximum number of frames to render.
+	 */
+	StackTraceLines(Throwable throwable, int frameLimit) {
+		Set<Throwable> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		this.remainingFrames = frameLimit;
+		this.root = section(throwable, new StackTraceElement[0], "", "", visited);
+		refresh();
+	}
+
+	/**
+	 * Get the currently visible lines.
+	 *
+	 * @return The currently visible lines.
+	 */
+	ObservableList<Line> lines() {
+		return this.lines;
+	}
+
+	/**
+	 * Toggle the collapsed state of a header line's section.
+	 *
+	 * @param line The header line to toggle (other lines are ignored).
+	 */
+	void toggle(@Nullable Line line) {
+		Section section = (line != null ? line.section : null);
+
+		if (section != null) {
+			section.collapsed = !section.collapsed;
+			refresh();
+		}
+	}
+
+	private void refresh() {
+		List<Line> visibleLines = new ArrayList<>();
+
+		collectLines(this.root, visibleLines);
+		this.lines.setAll(visibleLines);
+	}
+
+	private static void collectLines(Section section, List<Line> visibleLines) {
+		visibleLines.add(section.header);
+		if (!section.collapsed) {
+			visibleLines.addAll(section.lines);
+			for (Section childSection : section.sections) {
+				collectLines(childSection, visibleLines);
+			}
+		}
+	}
+
+	private Section section(Throwable throwable, StackTraceElement[] enclosingTrace, String caption, String indent,
+			Set<Throwable> visited) {
+		Section section = new Section(indent, caption + throwable);
+
+		visited.add(throwable);
+
+		StackTraceElement[] trace = throwable.getStackTrace();
+		int framesInCommon = framesInCommon(trace, enclosingTrace);
+
+		addFrames(section, trace, trace.length - framesInCommon, indent);
+		if (framesInCommon > 0) {
+			section.lines.add(new Line(Kind.SUMMARY, indent + INDENT + "... " + framesInCommon + " more", null));
+		}
+		for (Throwable suppressed : throwable.getSuppressed()) {
+			section.sections.add(child(suppressed, trace, "Suppressed: ", indent + INDENT, visited));
+		}
+
+		Throwable cause = throwable.getCause();
+
+		if (cause != null) {
+			section.sections.add(child(cause, trace, "Caused by: ", indent, visited));
+		}
+		return section;
+	}
+
+	private Section child(Throwable throwable, StackTraceElement[] enclosingTrace, String caption, String indent,
+			Set<Throwable> visited) {
+		Section section;
+
+		if (visited.contains(throwable)) {
+			section = new Section(indent, "[CIRCULAR REFERENCE: " + throwable + "]");
+		} else {
+			section = section(throwable, enclosingTrace, caption, indent, visited);
+		}
+		return section;
+	}
+
+	private void addFrames(Section section, StackTraceElement[] trace, int frameCount, String indent) {
+		String frameIndent = indent + INDENT + "at ";
+		int frameIndex = 0;
+
+		while (frameIndex < frameCount) {
+			if (this.remainingFrames <= 0) {
+				section.lines.add(new Line(Kind.SUMMARY,
+						indent + INDENT + "... " + (frameCount - frameIndex) + " frames omitted", null));
+				break;
+			}
+
+			int foldPeriod = 0;
+			int foldRepeats = 0;
+
+			for (int period = 1; period <= MAX_FOLD_PERIOD && frameIndex + 2 * period <= frameCount; period++) {
+				int repeats = repeats(trace, frameIndex, period, frameCount);
+
+				if (repeats > 0 && repeats * period > foldRepeats * foldPeriod) {
+					foldPeriod = period;
+					foldRepeats = repeats;
+				}
+			}
+
+			int framesToAdd = Math.min(Math.max(foldPeriod, 1), this.remainingFrames);
+
+			for (int frame = frameIndex; frame < frameIndex + framesToAdd; frame++) {
+				section.lines.add(new Line(Kind.FRAME, frameIndent + trace[frame], null));
+			}
+			this.remainingFrames -= framesToAdd;
+			frameIndex += framesToAdd;
+			if (foldRepeats > 0 && framesToAdd == foldPeriod) {
+				section.lines.add(new Line(Kind.SUMMARY, indent + INDENT + "... " + foldPeriod + " frame(s) repeated "
+						+ foldRepeats + " more time(s)", null));
+				frameIndex += foldRepeats * foldPeriod;
+			}
+		}
+	}
+
+	private static int repeats(StackTraceElement[] trace, int start, int period, int end) {
+		int repeats = 0;
+		int next = start + period;
+
+		while (next + period <= end && regionMatches(trace, start, next, period)) {
+			repeats++;
+			next += period;
+		}
+		return repeats;
+	}
+
+	private static boolean regionMatches(StackTraceElement[] trace, int start1, int start2, int length) {
+		boolean matches = true;
+
+		for (int offset = 0; offset < length; offset++) {
+			if (!trace[start1 + offset].equals(trace[start2 + offset])) {
+				matches = false;
+				break;
+			}
+		}
+		return matches;
+	}
+
+	private static int framesInCommon(StackTraceElement[] trace, StackTraceElement[] enclosingTrace) {
+		int traceIndex = trace.length - 1;
+		int enclosingIndex = enclosingTrace.length - 1;
+
+		while (traceIndex >= 0 && enclosingIndex >= 0 && trace[traceIndex].equals(enclosingTrace[enclosingIndex])) {
+			traceIndex--;
+			enclosingIndex--;
+		}
+		return trace.length - 1 - traceIndex;
+	}
+
+}
@@ -33,6 +33,28 @@ public class ImageViewTableCell<S> extends TableCell<S, Image> {
 
 	private final ImageView imageView = new ImageView();
 
+	/**
+	 * Construct {@code ImageViewTableCell}.
+	 */
+	public ImageViewTableCell() {
+		this(0.0);
+	}
+
+	/**
+	 * Construct {@code ImageViewTableCell}.
+	 *
+	 * @param fitSize The size to fit the images into (while preserving their ratio) or {@code 0.0} to draw the images
+	 * in their actual size.
+	 */
+	public ImageViewTableCell(double fitSize) {
+		if (fitSize > 0.0) {
+			this.imageView.setFitWidth(fitSize);
+			this.imageView.setFitHeight(fitSize);
+			this.imageView.setPreserveRatio(true);
+			this.imageView.setSmooth(true);
+		}
+	}
+
 	/**
 	 * Create a cell factory for use in a {@link TableColumn}.
 	 *
@@ -43,6 +65,21 @@ public class ImageViewTableCell<S> extends TableCell<S, Image> {
 		return (@Nullable TableColumn<T, Image> col) -> new ImageViewTableCell<>();
 	}
 
+	/**
+	 * Create a cell factory for use in a {@link TableColumn} fitting the images into a given size.
+	 * <p>
+	 * Use this factory for images retrieved for a specific size (e.g. via
+	 * {@link de.carne.jfx.scene.image.ImageRegistry#getImage(Object, double)}), as their pixel size may differ from
+	 * the requested one.
+	 *
+	 * @param <T> The actual cell value type.
+	 * @param fitSize The size to fit the images into.
+	 * @return A cell factory for creating image based cells.
+	 */
+	public static <T> Callback<TableColumn<T, Image>, TableCell<T, Image>> forTableColumn(double fitSize) {
+		return (@Nullable TableColumn<T, Image> col) -> new ImageViewTableCell<>(fitSize);
+	}
+
 	@Override
 	protected void updateItem(@Nullable Image item, boolean empty) {
 		if (empty) {
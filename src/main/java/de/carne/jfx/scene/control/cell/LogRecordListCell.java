@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.scene.control.cell;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.LogRecord;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import de.carne.jfx.stage.logview.LogViewFormats;
+import de.carne.jfx.stage.logview.LogViewImages;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.util.Callback;
+
+/**
+ * {@link ListCell} implementation for drawing {@link LogRecord} values.
+ * <p>
+ * The cell displays the record's level image and formatted message. Cells are recycled while scrolling; hence each
+ * cell re-uses a single {@link ImageView} and the formatted messages are cached per record (as long as the record is
+ * referenced elsewhere).
+ */
+public class LogRecordListCell extends ListCell<LogRecord> {
+
+	/**
+	 * Default level image size.
+	 */
+	public static final double DEFAULT_IMAGE_SIZE = 16.0;
+
+	// Cells are only accessed from the JavaFX application thread
+	private static final Map<LogRecord, String> MESSAGE_CACHE = new WeakHashMap<>();
+
+	private final double imageSize;
+
+	private final ImageView imageView = new ImageView();
+
+	/**
+	 * Construct {@code LogRecordListCell} using the default level image size.
+	 */
+	public LogRecordListCell() {
+		this(DEFAULT_IMAGE_SIZE);
+	}
+
+	/**
+	 * Construct {@code LogRecordListCell}.
+	 *
+	 * @param imageSize The level image size to use.
+	 */
+	public LogRecordListCell(double imageSize) {
+		this.imageSize = imageSize;
+		// The image's pixel size may differ from the requested size (e.g. on HiDPI screens)
+		this.imageView.setFitWidth(imageSize);
+		this.imageView.setFitHeight(imageSize);
+		this.imageView.setPreserveRatio(true);
+		this.imageView.setSmooth(true);
+	}
+
+	/**
+	 * Create a cell factory for use in a {@link ListView} using the default level image size.
+	 *
+	 * @return A cell factory for creating log record based cells.
+	 */
+	public static Callback<ListView<LogRecord>, ListCell<LogRecord>> forListView() {
+		return forListView(DEFAULT_IMAGE_SIZE);
+	}
+
+	/**
+	 * Create a cell factory for use in a {@link ListView}.
+	 *
+	 * @param imageSize The level image size to use.
+	 * @return A cell factory for creating log record based cells.
+	 */
+	public static Callback<ListView<LogRecord>, ListCell<LogRecord>> forListView(double imageSize) {
+		return (@Nullable ListView<LogRecord> list) -> new LogRecordListCell(imageSize);
+	}
+
+	@Override
+	protected void updateItem(@Nullable LogRecord item, boolean empty) {
+		super.updateItem(item, empty);
+		if (empty || item == null) {
+			setText(null);
+			this.imageView.setImage(null);
+			setGraphic(null);
+		} else {
+			setText(MESSAGE_CACHE.computeIfAbsent(item, LogViewFormats.MESSAGE_FORMAT::format));
+
+			Image itemImage = LogViewImages.LEVEL_IMAGES.getImage(item.getLevel(), this.imageSize);
+
+			this.imageView.setImage(itemImage);
+			setGraphic(itemImage != null ? this.imageView : null);
+		}
+	}
+
+}
@@ -16,35 +16,67 @@
  */
 package de.carne.jfx.scene.image;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Map;
-import java.util.NavigableMap;
-import java.util.Objects;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.jdt.annotation.Nullable;
 
 import javafx.scene.image.Image;
 
 /**
- * Utility class providing a {@link NavigableMap} based data structure for registering and retrieving {@link Image}
- * objects depending on their key and size.
+ * Utility class providing a hash based data structure for registering and retrieving {@link Image} objects depending
+ * on their key and size.
+ * <p>
+ * Lookups are lock-free and allocation-free and may be performed from any thread. The image resolved for a specific
+ * key and size is memoized until further images are registered for the key.
  *
  * @param <K> The key type to use.
  */
 public final class ImageRegistry<K> {
 
-	private final NavigableMap<CompositeKey, Image> imageMap = new TreeMap<>();
+	private final Map<K, SizedImages> imageMap = new ConcurrentHashMap<>();
 
-	private final Comparator<K> comparator;
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	@Nullable
+	private volatile ScaledImageCache scaledImageCache = null;
+
+	/**
+	 * Construct {@code ImageRegistry}.
+	 */
+	public ImageRegistry() {
+		// Nothing to do here
+	}
 
 	/**
 	 * Construct {@code ImageRegistry}.
 	 *
 	 * @param comparator The {@link Comparator} to use for key comparison.
+	 * @deprecated Keys are matched via {@link Object#equals(Object)} and {@link Object#hashCode()}; use
+	 * {@link #ImageRegistry()}.
 	 */
+	@Deprecated
 	public ImageRegistry(Comparator<K> comparator) {
-		this.comparator = comparator;
+		this();
+	}
+
+	/**
+	 * Set the {@link ScaledImageCache} to use for scaling images to the exact requested size.
+	 * <p>
+	 * If a scaled image cache is set, size based lookups return images scaled to the exact requested size as soon as
+	 * the cache has created them. Until then the nearest registered image is returned.
+	 *
+	 * @param cache The {@link ScaledImageCache} to use or {@code null} to disable scaling.
+	 * @return This image registry for chaining.
+	 */
+	public ImageRegistry<K> setScaledImageCache(@Nullable ScaledImageCache cache) {
+		this.scaledImageCache = cache;
+		return this;
 	}
 
 	/**
@@ -55,8 +87,23 @@ public final class ImageRegistry<K> {
 	 * @return The previously registered image, or {@code null} if no image has yet been registered for the submitted
 	 * key and image size.
 	 */
+	@Nullable
 	public Image registerImage(K key, Image image) {
-		return this.imageMap.put(new CompositeKey(key, image.getHeight(), image.getWidth()), image);
+		int sizeKey = sizeKey(image.getHeight(), image.getWidth());
+		Image[] previousImage = new Image[1];
+
+		this.imageMap.compute(key, (k, sizedImages) -> {
+			SizedImages updatedImages;
+
+			if (sizedImages == null) {
+				updatedImages = new SizedImages(sizeKey, image);
+			} else {
+				previousImage[0] = sizedImages.get(sizeKey);
+				updatedImages = sizedImages.put(sizeKey, image);
+			}
+			return updatedImages;
+		});
+		return previousImage[0];
 	}
 
 	/**
@@ -102,6 +149,11 @@ public final class ImageRegistry<K> {
 
 	/**
 	 * Get the image associated with a specific key and nearest to a given size.
+	 * <p>
+	 * The smallest image at least as large as the given size is returned. If no such image exists, the largest image
+	 * registered for the key is returned. If a {@link ScaledImageCache} has been set, the image is scaled to the exact
+	 * size (and memoized as long as the cache keeps it). As the returned image's pixel size may differ from the requested
+	 * size (e.g. due to the cache's output scale), it should be displayed with a fit size equal to the requested size.
 	 *
 	 * @param key The key to get the image for.
 	 * @param size The size to match by the image.
@@ -110,68 +162,188 @@ public final class ImageRegistry<K> {
 	 */
 	@Nullable
 	public Image getImage(K key, double size, @Nullable Image def) {
-		CompositeKey searchKey = new CompositeKey(key, size);
-		Map.Entry<CompositeKey, Image> entry = this.imageMap.ceilingEntry(searchKey);
+		SizedImages sizedImages = this.imageMap.get(key);
+
+		if (sizedImages == null) {
+			return def;
+		}
+
+		int sizeKey = sizeKey(size);
+		Resolved resolved = sizedImages.resolved(sizeKey);
 
-		if (entry == null || !entry.getKey().baseKey().equals(key)) {
-			entry = this.imageMap.lowerEntry(searchKey);
+		if (resolved != null) {
+			this.hitCount.increment();
+		} else {
+			this.missCount.increment();
+			resolved = sizedImages.resolve(sizeKey);
 		}
-		return (entry != null && entry.getKey().baseKey().equals(key) ? entry.getValue() : def);
+
+		Image image = resolved.image;
+		ScaledImageCache cache = this.scaledImageCache;
+
+		if (cache != null && size > 0.0) {
+			long cacheGeneration = cache.generation();
+			Image scaledImage = resolved.scaledImage;
+
+			if (scaledImage != null && resolved.scaledImageCache == cache
+					&& resolved.scaledImageGeneration == cacheGeneration) {
+				image = scaledImage;
+			} else {
+				scaledImage = cache.getScaled(image, size);
+				if (scaledImage != image) {
+					sizedImages.memoizeScaled(resolved, scaledImage, cache, cacheGeneration);
+				}
+				image = scaledImage;
+			}
+		}
+		return image;
 	}
 
-	int compareBaseKey(K o1, K o2) {
-		return this.comparator.compare(o1, o2);
+	/**
+	 * Get the number of {@code getImage} calls answered from the memoized resolution results.
+	 *
+	 * @return The number of {@code getImage} calls answered from the memoized resolution results.
+	 */
+	public long hitCount() {
+		return this.hitCount.sum();
 	}
 
-	private final class CompositeKey implements Comparable<CompositeKey> {
+	/**
+	 * Get the number of {@code getImage} calls which required a size search.
+	 *
+	 * @return The number of {@code getImage} calls which required a size search.
+	 */
+	public long missCount() {
+		return this.missCount.sum();
+	}
 
-		private final K baseKey;
+	/**
+	 * Reset the hit and miss statistics.
+	 */
+	public void resetStatistics() {
+		this.hitCount.reset();
+		this.missCount.reset();
+	}
 
-		private final int sizeKey;
+	private static int sizeKey(double height, double width) {
+		return (int) (height * width);
+	}
 
-		public CompositeKey(K baseKey, double height, double width) {
-			this.baseKey = baseKey;
-			this.sizeKey = (int) (height * width);
+	private static int sizeKey(double size) {
+		return (size > 0.0 ? (int) (size * size) : Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Immutable array based collection of the images registered for a single key sorted by their size.
+	 * <p>
+	 * In addition a small direct mapped memo of already resolved sizes (including the scaled image if available) is
+	 * maintained.
+	 */
+	private static final class SizedImages {
+
+		private static final int RESOLVED_MASK = 0x7;
+
+		private final int[] sizeKeys;
+
+		private final Image[] images;
+
+		private final @Nullable Resolved[] resolved = new Resolved[RESOLVED_MASK + 1];
+
+		SizedImages(int sizeKey, Image image) {
+			this(new int[] { sizeKey }, new Image[] { image });
 		}
 
-		public CompositeKey(K baseKey, double size) {
-			this.baseKey = baseKey;
-			this.sizeKey = (size > 0.0 ? (int) (size * size) : Integer.MAX_VALUE);
+		private SizedImages(int[] sizeKeys, Image[] images) {
+			this.sizeKeys = sizeKeys;
+			this.images = images;
 		}
 
-		public K baseKey() {
-			return this.baseKey;
+		@Nullable
+		Image get(int sizeKey) {
+			int index = Arrays.binarySearch(this.sizeKeys, sizeKey);
+
+			return (index >= 0 ? this.images[index] : null);
 		}
 
-		@Override
-		public int compareTo(@Nullable CompositeKey _o) {
-			CompositeKey o = Objects.requireNonNull(_o);
+		SizedImages put(int sizeKey, Image image) {
+			int index = Arrays.binarySearch(this.sizeKeys, sizeKey);
+			int[] updatedSizeKeys;
+			Image[] updatedImages;
 
-			int comparison = compareBaseKey(this.baseKey, o.baseKey);
+			if (index >= 0) {
+				updatedSizeKeys = this.sizeKeys;
+				updatedImages = this.images.clone();
+				updatedImages[index] = image;
+			} else {
+				int insertIndex = -(index + 1);
+				int length = this.sizeKeys.length;
 
-			if (comparison == 0) {
-				comparison = Integer.compare(this.sizeKey, o.sizeKey);
+				updatedSizeKeys = new int[length + 1];
+				updatedImages = new Image[length + 1];
+				System.arraycopy(this.sizeKeys, 0, updatedSizeKeys, 0, insertIndex);
+				System.arraycopy(this.images, 0, updatedImages, 0, insertIndex);
+				updatedSizeKeys[insertIndex] = sizeKey;
+				updatedImages[insertIndex] = image;
+				System.arraycopy(this.sizeKeys, insertIndex, updatedSizeKeys, insertIndex + 1, length - insertIndex);
+				System.arraycopy(this.images, insertIndex, updatedImages, insertIndex + 1, length - insertIndex);
 			}
-			return comparison;
+			return new SizedImages(updatedSizeKeys, updatedImages);
 		}
 
-		@Override
-		public int hashCode() {
-			return Objects.hash(this.baseKey, this.sizeKey);
-		}
+		@Nullable
+		Resolved resolved(int sizeKey) {
+			Resolved slot = this.resolved[resolvedIndex(sizeKey)];
 
-		@Override
-		public boolean equals(@Nullable Object obj) {
-			boolean equal = false;
+			return (slot != null && slot.sizeKey == sizeKey ? slot : null);
+		}
 
-			if (this == obj) {
-				equal = true;
-			} else if (obj instanceof ImageRegistry<?>.CompositeKey) {
-				ImageRegistry<?>.CompositeKey o = (ImageRegistry<?>.CompositeKey) obj;
+		Resolved resolve(int sizeKey) {
+			int index = Arrays.binarySearch(this.sizeKeys, sizeKey);
 
-				equal = this.baseKey.equals(o.baseKey) && this.sizeKey == o.sizeKey;
+			if (index < 0) {
+				index = Math.min(-(index + 1), this.sizeKeys.length - 1);
 			}
-			return equal;
+
+			Resolved slot = new Resolved(sizeKey, this.images[index], null, null, 0);
+
+			// Racy store is fine, as Resolved is immutable
+			this.resolved[resolvedIndex(sizeKey)] = slot;
+			return slot;
+		}
+
+		void memoizeScaled(Resolved slot, Image scaledImage, ScaledImageCache cache, long cacheGeneration) {
+			// Racy store is fine, as Resolved is immutable
+			this.resolved[resolvedIndex(slot.sizeKey)] = new Resolved(slot.sizeKey, slot.image, scaledImage, cache,
+					cacheGeneration);
+		}
+
+		private static int resolvedIndex(int sizeKey) {
+			return (sizeKey ^ (sizeKey >>> 16)) & RESOLVED_MASK;
+		}
+
+	}
+
+	private static final class Resolved {
+
+		final int sizeKey;
+
+		final Image image;
+
+		@Nullable
+		final Image scaledImage;
+
+		@Nullable
+		final ScaledImageCache scaledImageCache;
+
+		final long scaledImageGeneration;
+
+		Resolved(int sizeKey, Image image, @Nullable Image scaledImage, @Nullable ScaledImageCache scaledImageCache,
+				long scaledImageGeneration) {
+			this.sizeKey = sizeKey;
+			this.image = image;
+			this.scaledImage = scaledImage;
+			this.scaledImageCache = scaledImageCache;
+			this.scaledImageGeneration = scaledImageGeneration;
 		}
 
 	}
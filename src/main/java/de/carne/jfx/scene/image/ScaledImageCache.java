@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.scene.image;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import de.carne.boot.logging.Log;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Cache for {@link Image} objects pre-scaled to an exact size.
+ * <p>
+ * If a scaled image is requested which is not yet cached, the unscaled image is returned and the scaled image is
+ * created in the background. The cache is bounded by a memory budget and evicts the least recently used images first.
+ *
+ * @see ImageRegistry#setScaledImageCache(ScaledImageCache)
+ */
+public final class ScaledImageCache {
+
+	private static final Log LOG = new Log();
+
+	private static final int BYTES_PER_PIXEL = 4;
+
+	private final long memoryBudget;
+
+	private final double outputScale;
+
+	private final Executor executor;
+
+	private final Map<ScaleKey, Image> scaledImages = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final Set<ScaleKey> pendingKeys = ConcurrentHashMap.newKeySet();
+
+	private long memoryUsed = 0;
+
+	private volatile long generation = 0;
+
+	/**
+	 * Construct {@code ScaledImageCache}.
+	 * <p>
+	 * Scaling is performed by the {@link ForkJoinPool#commonPool()} at an output scale of {@code 1.0}.
+	 *
+	 * @param memoryBudget The maximum number of bytes to occupy by the cached images.
+	 */
+	public ScaledImageCache(long memoryBudget) {
+		this(memoryBudget, 1.0, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Construct {@code ScaledImageCache}.
+	 * <p>
+	 * The output scale determines the pixel size of the scaled images (e.g. {@code 2.0} for a HiDPI screen). Scaled
+	 * images with an output scale other than {@code 1.0} must be displayed with a fit size equal to the requested size
+	 * (as done by {@link de.carne.jfx.scene.control.cell.ImageViewTableCell#forTableColumn(double)}).
+	 *
+	 * @param memoryBudget The maximum number of bytes to occupy by the cached images.
+	 * @param outputScale The output scale to apply.
+	 * @param executor The {@link Executor} to use for scaling.
+	 */
+	public ScaledImageCache(long memoryBudget, double outputScale, Executor executor) {
+		if (memoryBudget <= 0) {
+			throw new IllegalArgumentException("Invalid memory budget: " + memoryBudget);
+		}
+		if (outputScale <= 0.0) {
+			throw new IllegalArgumentException("Invalid output scale: " + outputScale);
+		}
+		this.memoryBudget = memoryBudget;
+		this.outputScale = outputScale;
+		this.executor = executor;
+	}
+
+	/**
+	 * Get the image scaled to a specific size.
+	 * <p>
+	 * The larger dimension of the image is scaled to the given size, the smaller one according to the image's aspect
+	 * ratio.
+	 *
+	 * @param image The image to scale.
+	 * @param size The size to scale to.
+	 * @return The scaled image, or the submitted image if it already has the requested size or if the scaled image is
+	 * not yet available.
+	 */
+	public Image getScaled(Image image, double size) {
+		double imageWidth = image.getWidth();
+		double imageHeight = image.getHeight();
+		double scale = (size * this.outputScale) / Math.max(imageWidth, imageHeight);
+		int scaledWidth = Math.max((int) Math.round(imageWidth * scale), 1);
+		int scaledHeight = Math.max((int) Math.round(imageHeight * scale), 1);
+
+		if ((scaledWidth == (int) imageWidth && scaledHeight == (int) imageHeight) || image.getProgress() < 1.0
+				|| image.isError()) {
+			return image;
+		}
+
+		ScaleKey key = new ScaleKey(image, scaledWidth, scaledHeight);
+		Image scaledImage;
+
+		synchronized (this.scaledImages) {
+			scaledImage = this.scaledImages.get(key);
+		}
+		if (scaledImage == null) {
+			scaledImage = image;
+			if (this.pendingKeys.add(key)) {
+				try {
+					this.executor.execute(() -> scale(key));
+				} catch (RejectedExecutionException e) {
+					this.pendingKeys.remove(key);
+					LOG.warning(e, "Failed to schedule image scaling");
+				}
+			}
+		}
+		return scaledImage;
+	}
+
+	/**
+	 * Get the number of bytes currently occupied by the cached images.
+	 *
+	 * @return The number of bytes currently occupied by the cached images.
+	 */
+	public long memoryUsed() {
+		synchronized (this.scaledImages) {
+			return this.memoryUsed;
+		}
+	}
+
+	/**
+	 * Discard all cached images.
+	 */
+	public void clear() {
+		synchronized (this.scaledImages) {
+			this.scaledImages.clear();
+			this.memoryUsed = 0;
+			this.generation++;
+		}
+	}
+
+	/**
+	 * Get the cache's generation which changes whenever images are discarded.
+	 * <p>
+	 * Scaled images memoized outside the cache (see {@link ImageRegistry}) are only valid as long as the generation
+	 * is unchanged.
+	 *
+	 * @return The cache's generation.
+	 */
+	long generation() {
+		return this.generation;
+	}
+
+	private void scale(ScaleKey key) {
+		try {
+			Image scaledImage = scaleImage(key.image, key.width, key.height);
+			long scaledImageSize = (long) key.width * key.height * BYTES_PER_PIXEL;
+
+			if (scaledImageSize <= this.memoryBudget) {
+				synchronized (this.scaledImages) {
+					Image previousImage = this.scaledImages.put(key, scaledImage);
+
+					if (previousImage == null) {
+						this.memoryUsed += scaledImageSize;
+					}
+
+					Iterator<ScaleKey> keyIterator = this.scaledImages.keySet().iterator();
+
+					while (this.memoryUsed > this.memoryBudget && keyIterator.hasNext()) {
+						ScaleKey evictKey = keyIterator.next();
+
+						keyIterator.remove();
+						this.memoryUsed -= (long) evictKey.width * evictKey.height * BYTES_PER_PIXEL;
+						this.generation++;
+					}
+				}
+			}
+		} catch (RuntimeException e) {
+			LOG.warning(e, "Failed to scale image");
+		} finally {
+			this.pendingKeys.remove(key);
+		}
+	}
+
+	private static Image scaleImage(Image image, int scaledWidth, int scaledHeight) {
+		PixelReader reader = image.getPixelReader();
+
+		if (reader == null) {
+			throw new IllegalArgumentException("Image pixels are not readable");
+		}
+
+		int width = (int) image.getWidth();
+		int height = (int) image.getHeight();
+		int[] pixels = new int[width * height];
+
+		reader.getPixels(0, 0, width, height, PixelFormat.getIntArgbPreInstance(), pixels, 0, width);
+
+		int[] scaledPixels = new int[scaledWidth * scaledHeight];
+
+		// Box filter: Average all source pixels covered by a target pixel (at least one)
+		for (int y = 0; y < scaledHeight; y++) {
+			int y0 = y * height / scaledHeight;
+			int y1 = Math.max((y + 1) * height / scaledHeight, y0 + 1);
+
+			for (int x = 0; x < scaledWidth; x++) {
+				int x0 = x * width / scaledWidth;
+				int x1 = Math.max((x + 1) * width / scaledWidth, x0 + 1);
+				long a = 0;
+				long r = 0;
+				long g = 0;
+				long b = 0;
+
+				for (int sy = y0; sy < y1; sy++) {
+					for (int sx = x0; sx < x1; sx++) {
+						int pixel = pixels[sy * width + sx];
+
+						a += (pixel >>> 24) & 0xff;
+						r += (pixel >>> 16) & 0xff;
+						g += (pixel >>> 8) & 0xff;
+						b += pixel & 0xff;
+					}
+				}
+
+				int count = (y1 - y0) * (x1 - x0);
+
+				scaledPixels[y * scaledWidth + x] = (int) ((a / count) << 24 | (r / count) << 16 | (g / count) << 8
+						| (b / count));
+			}
+		}
+
+		WritableImage scaledImage = new WritableImage(scaledWidth, scaledHeight);
+
+		scaledImage.getPixelWriter().setPixels(0, 0, scaledWidth, scaledHeight, PixelFormat.getIntArgbPreInstance(),
+				scaledPixels, 0, scaledWidth);
+		return scaledImage;
+	}
+
+	private static final class ScaleKey {
+
+		final Image image;
+
+		final int width;
+
+		final int height;
+
+		ScaleKey(Image image, int width, int height) {
+			this.image = image;
+			this.width = width;
+			this.height = height;
+		}
+
+		@Override
+		public int hashCode() {
+			return (System.identityHashCode(this.image) * 31 + this.width) * 31 + this.height;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object obj) {
+			boolean equal = false;
+
+			if (this == obj) {
+				equal = true;
+			} else if (obj instanceof ScaleKey) {
+				ScaleKey o = (ScaleKey) obj;
+
+				equal = this.image == o.image && this.width == o.width && this.height == o.height;
+			}
+			return equal;
+		}
+
+	}
+
+}
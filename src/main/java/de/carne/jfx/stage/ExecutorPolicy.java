@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.stage;
+
+/**
+ * Policies for executing {@link StageController} background tasks.
+ *
+ * @see StageController#setExecutorPolicy(ExecutorPolicy, int)
+ */
+public enum ExecutorPolicy {
+
+	/**
+	 * All background tasks of all stages are executed one after another by a single thread (the default).
+	 * <p>
+	 * This policy uses the executor service returned by {@link StageController#getExecutorService()}.
+	 */
+	SINGLE_THREAD,
+
+	/**
+	 * Background tasks are executed in parallel by a bounded work-stealing pool shared by all stages.
+	 */
+	WORK_STEALING,
+
+	/**
+	 * Background tasks of the same stage are executed one after another, while background tasks of different stages
+	 * are executed in parallel by a bounded work-stealing pool shared by all stages.
+	 */
+	SERIAL_PER_STAGE,
+
+	/**
+	 * Every background task is executed by its own virtual thread.
+	 * <p>
+	 * If the running JDK does not support virtual threads, this policy falls back to {@link #WORK_STEALING}.
+	 */
+	VIRTUAL_THREAD_PER_TASK
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.stage;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * {@link Executor} running the submitted commands one after another on top of another {@link Executor}.
+ */
+final class SerialExecutor implements Executor {
+
+	private final Queue<Runnable> commands = new ArrayDeque<>();
+
+	private final Executor executor;
+
+	@Nullable
+	private Runnable active = null;
+
+	SerialExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	@Override
+	public synchronized void execute(@Nullable Runnable command) {
+		if (command == null) {
+			throw new NullPointerException();
+		}
+		this.commands.add(() -> {
+			try {
+				command.run();
+			} finally {
+				scheduleNext();
+			}
+		});
+		if (this.active == null) {
+			scheduleNext();
+		}
+	}
+
+	private synchronized void scheduleNext() {
+		Runnable next = this.active = this.commands.poll();
+
+		if (next != null) {
+			try {
+				this.executor.execute(next);
+			} catch (RejectedExecutionException e) {
+				// Do not block the following commands
+				this.active = null;
+				throw e;
+			}
+		}
+	}
+
+}
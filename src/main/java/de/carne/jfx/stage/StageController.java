@@ -17,7 +17,11 @@
 package de.carne.jfx.stage;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
@@ -58,14 +62,33 @@ public abstract class StageController extends FXMLController<Stage> {
 	private static final Lazy<ScheduledExecutorService> EXECUTOR_SERVICE = new Lazy<>(
 			Executors::newSingleThreadScheduledExecutor);
 
+	private static final Object BACKGROUND_EXECUTOR_LOCK = new Object();
+
+	private static final Executor BACKGROUND_EXECUTOR_DISPATCHER = StageController::dispatchBackgroundTask;
+
+	private static ExecutorPolicy backgroundExecutorPolicy = ExecutorPolicy.SINGLE_THREAD;
+
+	private static int backgroundExecutorParallelism = Runtime.getRuntime().availableProcessors();
+
+	@Nullable
+	private static ExecutorService backgroundExecutorService = null;
+
+	private static boolean backgroundExecutorServiceOwned = false;
+
 	static {
 		ShutdownHooks.add(() -> EXECUTOR_SERVICE.getOptional().ifPresent(ScheduledExecutorService::shutdown));
+		ShutdownHooks.add(() -> setBackgroundExecutorService(null, false));
 	}
 
 	private final AtomicInteger backgroundTaskCount = new AtomicInteger(0);
 
+	private final SerialExecutor backgroundLane = new SerialExecutor(BACKGROUND_EXECUTOR_DISPATCHER);
+
 	/**
 	 * Get the {@link ScheduledExecutorService} shared by all stage controllers.
+	 * <p>
+	 * The returned executor service uses a single thread for all stages. Use {@link #getBackgroundExecutor()} for
+	 * executing background tasks according to the configured {@link ExecutorPolicy}.
 	 *
 	 * @return The {@link ScheduledExecutorService} to use for background processing.
 	 */
@@ -73,6 +96,147 @@ public abstract class StageController extends FXMLController<Stage> {
 		return EXECUTOR_SERVICE.get();
 	}
 
+	/**
+	 * Set the policy used for executing background tasks (defaults to {@link ExecutorPolicy#SINGLE_THREAD}).
+	 * <p>
+	 * The policy should be set during application startup. If the policy is changed later on, all subsequent
+	 * background tasks (including the ones of already existing stages) are executed according to the new policy. A
+	 * previously created executor service is shut down immediately; tasks already handed over to it still complete.
+	 * Queued tasks of a stage executing its tasks serially are executed by the new executor after the stage's current
+	 * task has finished.
+	 *
+	 * @param policy The {@link ExecutorPolicy} to use.
+	 * @param parallelism The maximum number of background tasks to execute in parallel (ignored for
+	 * {@link ExecutorPolicy#SINGLE_THREAD} and {@link ExecutorPolicy#VIRTUAL_THREAD_PER_TASK}).
+	 */
+	public static void setExecutorPolicy(ExecutorPolicy policy, int parallelism) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+		}
+		synchronized (BACKGROUND_EXECUTOR_LOCK) {
+			setBackgroundExecutorService(null, false);
+			backgroundExecutorPolicy = policy;
+			backgroundExecutorParallelism = parallelism;
+		}
+	}
+
+	/**
+	 * Set an application provided {@link ExecutorService} to use for executing background tasks.
+	 * <p>
+	 * The submitted executor service is shared by all stages and is not shut down by this class.
+	 *
+	 * @param executorService The {@link ExecutorService} to use.
+	 * @param serialPerStage Whether background tasks of the same stage should be executed one after another.
+	 */
+	public static void setExecutorService(ExecutorService executorService, boolean serialPerStage) {
+		synchronized (BACKGROUND_EXECUTOR_LOCK) {
+			setBackgroundExecutorService(executorService, false);
+			backgroundExecutorPolicy = (serialPerStage ? ExecutorPolicy.SERIAL_PER_STAGE : ExecutorPolicy.WORK_STEALING);
+		}
+	}
+
+	private static void setBackgroundExecutorService(@Nullable ExecutorService executorService, boolean owned) {
+		synchronized (BACKGROUND_EXECUTOR_LOCK) {
+			ExecutorService oldExecutorService = backgroundExecutorService;
+
+			if (oldExecutorService != null && backgroundExecutorServiceOwned) {
+				oldExecutorService.shutdown();
+			}
+			backgroundExecutorService = executorService;
+			backgroundExecutorServiceOwned = owned;
+		}
+	}
+
+	private static Executor currentBackgroundExecutor() {
+		synchronized (BACKGROUND_EXECUTOR_LOCK) {
+			ExecutorService executorService = backgroundExecutorService;
+
+			if (backgroundExecutorPolicy == ExecutorPolicy.SINGLE_THREAD) {
+				return getExecutorService();
+			}
+			if (executorService == null) {
+				if (backgroundExecutorPolicy == ExecutorPolicy.VIRTUAL_THREAD_PER_TASK) {
+					executorService = newVirtualThreadPerTaskExecutor();
+				}
+				if (executorService == null) {
+					executorService = Executors.newWorkStealingPool(backgroundExecutorParallelism);
+				}
+				setBackgroundExecutorService(executorService, true);
+			}
+			return executorService;
+		}
+	}
+
+	private static void dispatchBackgroundTask(Runnable command) {
+		Executor executor = currentBackgroundExecutor();
+
+		try {
+			executor.execute(command);
+		} catch (RejectedExecutionException e) {
+			// The executor service may have been retired concurrently; retry with the current one
+			Executor currentExecutor = currentBackgroundExecutor();
+
+			if (currentExecutor == executor) {
+				throw e;
+			}
+			currentExecutor.execute(command);
+		}
+	}
+
+	@Nullable
+	private static ExecutorService newVirtualThreadPerTaskExecutor() {
+		ExecutorService executorService = null;
+
+		try {
+			executorService = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+					.invoke(null);
+		} catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+			LOG.info(e, "Virtual threads not available; falling back to work-stealing pool");
+		}
+		return executorService;
+	}
+
+	/**
+	 * Get the {@link Executor} to use for executing this stage's background tasks.
+	 * <p>
+	 * The returned executor is determined by the configured {@link ExecutorPolicy}. It always submits to the currently
+	 * configured executor and hence stays valid across policy changes.
+	 *
+	 * @return The {@link Executor} to use for executing this stage's background tasks.
+	 * @see #setExecutorPolicy(ExecutorPolicy, int)
+	 * @see #setExecutorService(ExecutorService, boolean)
+	 */
+	protected Executor getBackgroundExecutor() {
+		ExecutorPolicy policy;
+
+		synchronized (BACKGROUND_EXECUTOR_LOCK) {
+			policy = backgroundExecutorPolicy;
+		}
+
+		Executor executor;
+
+		if (policy == ExecutorPolicy.SINGLE_THREAD) {
+			executor = getExecutorService();
+		} else if (policy == ExecutorPolicy.SERIAL_PER_STAGE) {
+			// The stage's lane is kept across policy changes; hence new tasks are always queued behind the stage's
+			// previously submitted ones
+			executor = this.backgroundLane;
+		} else {
+			executor = BACKGROUND_EXECUTOR_DISPATCHER;
+		}
+		return executor;
+	}
+
+	/**
+	 * Execute a background task using this stage's background executor.
+	 *
+	 * @param task The background task to execute.
+	 * @see #getBackgroundExecutor()
+	 */
+	protected void executeBackgroundTask(BackgroundTask<?> task) {
+		getBackgroundExecutor().execute(task);
+	}
+
 	/**
 	 * Load the JavaFX application's primary stage.
 	 * <p>
@@ -90,6 +254,20 @@ public abstract class StageController extends FXMLController<Stage> {
 		return loadUI(null, (c) -> primaryStage, controllerClass);
 	}
 
+	/**
+	 * Preload the scene content for one or more stage controller classes in the background.
+	 * <p>
+	 * A following {@link #loadStage(Class)} or {@link #loadPrimaryStage(Stage, Class)} call for a preloaded controller
+	 * class only attaches the already loaded scene content to the stage.
+	 *
+	 * @param controllerClasses The controller classes to preload.
+	 * @see FXMLController#preloadUI(Class...)
+	 */
+	@SafeVarargs
+	public static void preload(Class<? extends StageController>... controllerClasses) {
+		preloadUI(controllerClasses);
+	}
+
 	/**
 	 * Load and create new stage.
 	 * <p>
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.stage.logview;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.LogRecord;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Policy deciding which of the published log records are actually ingested by the log view.
+ * <p>
+ * The policy supports two mechanisms to keep the view responsive during log storms:
+ * <ul>
+ * <li>Deduplication: Consecutive identical records are folded into the first one and only counted as repeats.</li>
+ * <li>Rate limiting: A token bucket per logger or per level limits the number of ingested records per second. The
+ * first occurrence of a message is always ingested; only recurring messages are dropped.</li>
+ * </ul>
+ * Both mechanisms are disabled by default. All functions of this class are thread-safe and do not block the logging
+ * threads on a shared lock (rate limiting only synchronizes per token bucket). Repeats are counted on the ingested
+ * record's {@link LogRecordModel}.
+ */
+public final class LogIngestPolicy {
+
+	/**
+	 * The scope a rate limit is applied to.
+	 */
+	public enum RateLimitScope {
+
+		/**
+		 * Apply the rate limit per logger.
+		 */
+		LOGGER,
+
+		/**
+		 * Apply the rate limit per log level.
+		 */
+		LEVEL
+
+	}
+
+	private static final int SEEN_MESSAGES_LIMIT = 1024;
+
+	private volatile boolean deduplication = false;
+
+	private volatile int rateLimit = 0;
+
+	private volatile RateLimitScope rateLimitScope = RateLimitScope.LOGGER;
+
+	private final ConcurrentMap<Object, TokenBucket> tokenBuckets = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<MessageKey, Boolean> seenMessages = new ConcurrentHashMap<>();
+
+	private final AtomicReference<@Nullable LogRecordModel> lastModel = new AtomicReference<>();
+
+	private final LongAdder repeatedCount = new LongAdder();
+
+	private final LongAdder droppedCount = new LongAdder();
+
+	/**
+	 * Enable or disable the deduplication of consecutive identical records (disabled by default).
+	 *
+	 * @param enabled Whether to enable deduplication or not.
+	 * @return This policy for chaining.
+	 */
+	public LogIngestPolicy setDeduplication(boolean enabled) {
+		this.deduplication = enabled;
+		if (!enabled) {
+			this.lastModel.set(null);
+		}
+		return this;
+	}
+
+	/**
+	 * Set the rate limit to apply (disabled by default).
+	 *
+	 * @param recordsPerSecond The maximum number of recurring records to ingest per second and scope (also defines the
+	 * burst size). {@code 0} disables rate limiting.
+	 * @param scope The scope to apply the rate limit to.
+	 * @return This policy for chaining.
+	 */
+	public LogIngestPolicy setRateLimit(int recordsPerSecond, RateLimitScope scope) {
+		if (recordsPerSecond < 0) {
+			throw new IllegalArgumentException("Invalid rate limit: " + recordsPerSecond);
+		}
+		this.rateLimitScope = scope;
+		this.rateLimit = recordsPerSecond;
+		this.tokenBuckets.clear();
+		return this;
+	}
+
+	/**
+	 * Get the number of records folded into a previous record by deduplication.
+	 *
+	 * @return The number of records folded into a previous record by deduplication.
+	 */
+	public long repeatedCount() {
+		return this.repeatedCount.sum();
+	}
+
+	/**
+	 * Get the number of records dropped due to the rate limit.
+	 *
+	 * @return The number of records dropped due to the rate limit.
+	 */
+	public long droppedCount() {
+		return this.droppedCount.sum();
+	}
+
+	/**
+	 * Reset the repeated and dropped record counters.
+	 */
+	public void resetCounts() {
+		this.repeatedCount.reset();
+		this.droppedCount.reset();
+	}
+
+	/**
+	 * Decide whether a record is ingested.
+	 * <p>
+	 * A record which is not ingested has been either counted as a repeat of the previously ingested record or as
+	 * dropped. With the default settings every record is ingested without any synchronization.
+	 *
+	 * @param record The record to check.
+	 * @return The model of the ingested record or {@code null} if the record is not ingested.
+	 */
+	@Nullable
+	LogRecordModel ingest(LogRecord record) {
+		boolean accepted = !(this.deduplication && foldRepeat(record));
+
+		if (accepted && this.rateLimit > 0) {
+			accepted = acquireRate(record);
+		}
+
+		LogRecordModel model = null;
+
+		if (accepted) {
+			model = new LogRecordModel(record);
+			if (this.deduplication) {
+				this.lastModel.set(model);
+			}
+		}
+		return model;
+	}
+
+	private boolean foldRepeat(LogRecord record) {
+		LogRecordModel last = this.lastModel.get();
+		boolean repeat = last != null && isRepeat(last.getRecord(), record);
+
+		if (last != null && repeat) {
+			last.addIngestRepeat();
+			this.repeatedCount.increment();
+		}
+		return repeat;
+	}
+
+	private boolean acquireRate(LogRecord record) {
+		boolean acquired = true;
+
+		// The seen message set is bounded by restarting it; afterwards messages count as first occurrences again
+		if (this.seenMessages.size() >= SEEN_MESSAGES_LIMIT) {
+			this.seenMessages.clear();
+		}
+		if (this.seenMessages.putIfAbsent(new MessageKey(record), Boolean.TRUE) != null) {
+			int checkedRateLimit = this.rateLimit;
+			Object bucketKey = (this.rateLimitScope == RateLimitScope.LOGGER ? Objects.toString(record.getLoggerName())
+					: Integer.valueOf(record.getLevel().intValue()));
+			TokenBucket bucket = this.tokenBuckets.computeIfAbsent(bucketKey, k -> new TokenBucket(checkedRateLimit));
+
+			acquired = bucket.tryAcquire();
+			if (!acquired) {
+				this.droppedCount.increment();
+			}
+		}
+		return acquired;
+	}
+
+	private static boolean isRepeat(LogRecord last, LogRecord record) {
+		return last.getLevel().equals(record.getLevel()) && Objects.equals(last.getLoggerName(), record.getLoggerName())
+				&& Objects.equals(last.getMessage(), record.getMessage())
+				&& Arrays.equals(last.getParameters(), record.getParameters())
+				&& isRepeat(last.getThrown(), record.getThrown());
+	}
+
+	private static boolean isRepeat(@Nullable Throwable last, @Nullable Throwable thrown) {
+		return (last == null ? thrown == null
+				: thrown != null && last.getClass().equals(thrown.getClass())
+						&& Objects.equals(last.getMessage(), thrown.getMessage()));
+	}
+
+	private static final class MessageKey {
+
+		private final String loggerName;
+
+		private final String message;
+
+		MessageKey(LogRecord record) {
+			this.loggerName = Objects.toString(record.getLoggerName());
+			this.message = Objects.toString(record.getMessage());
+		}
+
+		@Override
+		public int hashCode() {
+			return this.loggerName.hashCode() * 31 + this.message.hashCode();
+		}
+
+		@Override
+		public boolean equals(@Nullable Object obj) {
+			boolean equal = false;
+
+			if (this == obj) {
+				equal = true;
+			} else if (obj instanceof MessageKey) {
+				MessageKey o = (MessageKey) obj;
+
+				equal = this.loggerName.equals(o.loggerName) && this.message.equals(o.message);
+			}
+			return equal;
+		}
+
+	}
+
+	private static final class TokenBucket {
+
+		private final int capacity;
+
+		private final double tokensPerNano;
+
+		private double tokens;
+
+		private long lastRefill = System.nanoTime();
+
+		TokenBucket(int recordsPerSecond) {
+			this.capacity = recordsPerSecond;
+			this.tokensPerNano = (double) recordsPerSecond / TimeUnit.SECONDS.toNanos(1);
+			this.tokens = recordsPerSecond;
+		}
+
+		synchronized boolean tryAcquire() {
+			long now = System.nanoTime();
+
+			this.tokens = Math.min(this.tokens + (now - this.lastRefill) * this.tokensPerNano, this.capacity);
+			this.lastRefill = now;
+
+			boolean acquired = this.tokens >= 1.0;
+
+			if (acquired) {
+				this.tokens -= 1.0;
+			}
+			return acquired;
+		}
+
+	}
+
+}
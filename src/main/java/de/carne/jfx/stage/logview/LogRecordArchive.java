@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.stage.logview;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import de.carne.boot.logging.Log;
+
+/**
+ * Append-only disk archive for the log records evicted from the log view.
+ * <p>
+ * Records are stored in memory-mapped segment files using a compact binary encoding (length, time, level, thread id,
+ * repeat count and the UTF-8 encoded message). A separate index file maps each record number to its segment position.
+ * Archived records are paged back in on demand and only a few decoded pages are kept in memory. Hence memory usage
+ * stays flat independent of the archive size.
+ * <p>
+ * The archive is not thread-safe and is only accessed by the JavaFX application thread.
+ */
+final class LogRecordArchive implements Closeable {
+
+	private static final Log LOG = new Log();
+
+	private static final int SEGMENT_SIZE = 4 * 1024 * 1024;
+
+	private static final int RECORD_HEADER_SIZE = 4 * Integer.BYTES + Long.BYTES;
+
+	private static final int MAX_MESSAGE_SIZE = SEGMENT_SIZE - RECORD_HEADER_SIZE;
+
+	private static final int INDEX_ENTRY_SIZE = Long.BYTES;
+
+	private static final int PAGE_SIZE = 256;
+
+	private static final int PAGE_CACHE_SIZE = 8;
+
+	private final Path directory;
+
+	private final FileChannel indexChannel;
+
+	private final List<Path> segmentFiles = new ArrayList<>();
+
+	private final Map<Integer, Level> levels = new HashMap<>();
+
+	private final Map<Integer, List<LogRecordModel>> pageCache = new LinkedHashMap<Integer, List<LogRecordModel>>(
+			PAGE_CACHE_SIZE, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.@Nullable Entry<Integer, List<LogRecordModel>> eldest) {
+			return size() > PAGE_CACHE_SIZE;
+		}
+
+	};
+
+	@Nullable
+	private MappedByteBuffer writeSegment = null;
+
+	@Nullable
+	private MappedByteBuffer readSegment = null;
+
+	private int readSegmentNumber = -1;
+
+	private int size = 0;
+
+	private LogRecordArchive(Path directory, FileChannel indexChannel) {
+		this.directory = directory;
+		this.indexChannel = indexChannel;
+	}
+
+	/**
+	 * Create a new archive.
+	 *
+	 * @param parent The directory to create the archive in.
+	 * @return The created archive.
+	 * @throws IOException if an I/O error occurs while creating the archive files.
+	 */
+	static LogRecordArchive create(Path parent) throws IOException {
+		Path directory = Files.createTempDirectory(parent, "logview");
+		Path indexFile = directory.resolve("index");
+
+		LOG.debug("Creating log archive ''{0}''", directory);
+
+		FileChannel indexChannel = FileChannel.open(indexFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+
+		return new LogRecordArchive(directory, indexChannel);
+	}
+
+	/**
+	 * Get the number of archived records.
+	 *
+	 * @return The number of archived records.
+	 */
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * Append records to the archive.
+	 *
+	 * @param models The records to append.
+	 * @throws IOException if an I/O error occurs while writing the records.
+	 */
+	void append(List<LogRecordModel> models) throws IOException {
+		ByteBuffer indexEntries = ByteBuffer.allocate(models.size() * INDEX_ENTRY_SIZE);
+
+		for (LogRecordModel model : models) {
+			LogRecord record = model.getRecord();
+			Level level = record.getLevel();
+			byte[] message = model.getMessage().getBytes(StandardCharsets.UTF_8);
+			int messageLength = Math.min(message.length, MAX_MESSAGE_SIZE);
+			MappedByteBuffer segment = this.writeSegment;
+
+			if (segment == null || segment.remaining() < RECORD_HEADER_SIZE + messageLength) {
+				segment = nextSegment();
+			}
+			indexEntries.putLong(((long) (this.segmentFiles.size() - 1) << 32) | segment.position());
+			segment.putInt(messageLength);
+			segment.putLong(record.getMillis());
+			segment.putInt(level.intValue());
+			segment.putInt(record.getThreadID());
+			segment.putInt(model.getRepeatCount());
+			segment.put(message, 0, messageLength);
+			this.levels.putIfAbsent(level.intValue(), level);
+		}
+		indexEntries.flip();
+		while (indexEntries.hasRemaining()) {
+			this.indexChannel.write(indexEntries, (long) this.size * INDEX_ENTRY_SIZE + indexEntries.position());
+		}
+		this.size += models.size();
+	}
+
+	/**
+	 * Get an archived record.
+	 *
+	 * @param index The index of the record to get.
+	 * @return The archived record.
+	 * @throws IOException if an I/O error occurs while reading the record.
+	 */
+	LogRecordModel get(int index) throws IOException {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Invalid index: " + index);
+		}
+
+		Integer pageNumber = Integer.valueOf(index / PAGE_SIZE);
+		List<LogRecordModel> page = this.pageCache.get(pageNumber);
+
+		if (page == null || page.size() <= index % PAGE_SIZE) {
+			page = readPage(pageNumber.intValue());
+			this.pageCache.put(pageNumber, page);
+		}
+		return page.get(index % PAGE_SIZE);
+	}
+
+	/**
+	 * Discard all archived records.
+	 *
+	 * @throws IOException if an I/O error occurs while discarding the records.
+	 */
+	void clear() throws IOException {
+		this.pageCache.clear();
+		this.writeSegment = null;
+		this.readSegment = null;
+		this.readSegmentNumber = -1;
+		for (Path segmentFile : this.segmentFiles) {
+			deleteFile(segmentFile);
+		}
+		this.segmentFiles.clear();
+		this.indexChannel.truncate(0);
+		this.size = 0;
+	}
+
+	@Override
+	public void close() throws IOException {
+		LOG.debug("Closing log archive ''{0}''", this.directory);
+
+		try {
+			clear();
+		} finally {
+			this.indexChannel.close();
+			deleteFile(this.directory.resolve("index"));
+			deleteFile(this.directory);
+		}
+	}
+
+	private MappedByteBuffer nextSegment() throws IOException {
+		Path segmentFile = this.directory.resolve(String.format("segment%05d", this.segmentFiles.size()));
+		MappedByteBuffer segment;
+
+		try (FileChannel segmentChannel = FileChannel.open(segmentFile, StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			segment = segmentChannel.map(MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+		}
+		this.segmentFiles.add(segmentFile);
+		this.writeSegment = segment;
+		return segment;
+	}
+
+	private List<LogRecordModel> readPage(int pageNumber) throws IOException {
+		int pageStart = pageNumber * PAGE_SIZE;
+		int pageSize = Math.min(this.size - pageStart, PAGE_SIZE);
+		ByteBuffer indexEntries = ByteBuffer.allocate(pageSize * INDEX_ENTRY_SIZE);
+
+		while (indexEntries.hasRemaining()) {
+			if (this.indexChannel.read(indexEntries,
+					(long) pageStart * INDEX_ENTRY_SIZE + indexEntries.position()) < 0) {
+				throw new IOException("Unexpected end of log archive index");
+			}
+		}
+		indexEntries.flip();
+
+		List<LogRecordModel> page = new ArrayList<>(pageSize);
+
+		while (indexEntries.hasRemaining()) {
+			long position = indexEntries.getLong();
+			ByteBuffer segment = segment((int) (position >>> 32));
+
+			segment.position((int) position);
+
+			int messageLength = segment.getInt();
+			long millis = segment.getLong();
+			int levelValue = segment.getInt();
+			int threadId = segment.getInt();
+			int repeatCount = segment.getInt();
+			byte[] message = new byte[messageLength];
+
+			segment.get(message);
+
+			Level level = this.levels.get(levelValue);
+			LogRecord record = new LogRecord(level != null ? level : Level.parse(Integer.toString(levelValue)),
+					new String(message, StandardCharsets.UTF_8));
+
+			record.setMillis(millis);
+			record.setThreadID(threadId);
+
+			LogRecordModel model = new LogRecordModel(record);
+
+			model.setRepeatCount(repeatCount);
+			page.add(model);
+		}
+		return page;
+	}
+
+	private ByteBuffer segment(int segmentNumber) throws IOException {
+		MappedByteBuffer segment;
+
+		if (segmentNumber == this.segmentFiles.size() - 1) {
+			segment = this.writeSegment;
+		} else if (segmentNumber == this.readSegmentNumber) {
+			segment = this.readSegment;
+		} else {
+			try (FileChannel segmentChannel = FileChannel.open(this.segmentFiles.get(segmentNumber),
+					StandardOpenOption.READ)) {
+				segment = segmentChannel.map(MapMode.READ_ONLY, 0, SEGMENT_SIZE);
+			}
+			this.readSegment = segment;
+			this.readSegmentNumber = segmentNumber;
+		}
+		if (segment == null) {
+			throw new IOException("Log archive segment not available: " + segmentNumber);
+		}
+		return segment.duplicate();
+	}
+
+	private static void deleteFile(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			// A still mapped segment may not be deletable on some platforms
+			LOG.warning(e, "Failed to delete log archive file ''{0}''", file);
+			file.toFile().deleteOnExit();
+		}
+	}
+
+}
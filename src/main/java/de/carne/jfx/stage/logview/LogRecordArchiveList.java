@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.stage.logview;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.logging.LogRecord;
+
+import de.carne.boot.logging.Log;
+import de.carne.boot.logging.LogLevel;
+import javafx.collections.ObservableListBase;
+
+/**
+ * Read-only {@link javafx.collections.ObservableList} combining the archived records with the in-memory records of
+ * the log view.
+ * <p>
+ * Records evicted from the in-memory window are moved to the archive's tail. As this does not change their position
+ * within the combined list, only the appended records have to be reported as a change. Archived records are paged in
+ * on demand (e.g. as the user scrolls past the in-memory head).
+ */
+final class LogRecordArchiveList extends ObservableListBase<LogRecordModel> {
+
+	private static final Log LOG = new Log();
+
+	private final LogRecordArchive archive;
+
+	private final List<LogRecordModel> records;
+
+	LogRecordArchiveList(LogRecordArchive archive, List<LogRecordModel> records) {
+		this.archive = archive;
+		this.records = records;
+	}
+
+	@Override
+	public LogRecordModel get(int index) {
+		int archived = this.archive.size();
+		LogRecordModel model;
+
+		if (index < archived) {
+			try {
+				model = this.archive.get(index);
+			} catch (IOException e) {
+				LOG.warning(e, "Failed to read archived log record {0}", index);
+
+				model = new LogRecordModel(new LogRecord(LogLevel.LEVEL_ERROR, e.getLocalizedMessage()));
+			}
+		} else {
+			model = this.records.get(index - archived);
+		}
+		return model;
+	}
+
+	@Override
+	public int size() {
+		return this.archive.size() + this.records.size();
+	}
+
+	void fireAdded(int from, int to) {
+		if (from < to) {
+			beginChange();
+			try {
+				nextAdd(from, to);
+			} finally {
+				endChange();
+			}
+		}
+	}
+
+}
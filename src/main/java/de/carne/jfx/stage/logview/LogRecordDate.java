@@ -18,6 +18,8 @@ package de.carne.jfx.stage.logview;
 
 import java.util.Date;
 
+import org.eclipse.jdt.annotation.Nullable;
+
 /**
  * Wrapper class for {@link Date} used to apply a log specific date formating.
  */
@@ -28,6 +30,11 @@ public class LogRecordDate extends Date {
 	 */
 	private static final long serialVersionUID = 5846084302347518381L;
 
+	@Nullable
+	private transient String formatted = null;
+
+	private transient long formattedTime = 0;
+
 	/**
 	 * Construct {@code LogRecordDate}.
 	 *
@@ -40,7 +47,15 @@ public class LogRecordDate extends Date {
 
 	@Override
 	public String toString() {
-		return LogViewFormats.TIME_FORMAT.format(this);
+		long time = getTime();
+		String checkedFormatted = this.formatted;
+
+		if (checkedFormatted == null || this.formattedTime != time) {
+			checkedFormatted = LogViewFormats.TIME_FORMATTER.format(time);
+			this.formattedTime = time;
+			this.formatted = checkedFormatted;
+		}
+		return checkedFormatted;
 	}
 
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.stage.logview;
+
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Immutable filter criteria for the log records displayed by the log view.
+ */
+public final class LogRecordFilter {
+
+	/**
+	 * Filter accepting all log records.
+	 */
+	public static final LogRecordFilter NONE = new LogRecordFilter(null, null, null);
+
+	@Nullable
+	private final Level minLevel;
+
+	@Nullable
+	private final Integer threadId;
+
+	@Nullable
+	private final Pattern messagePattern;
+
+	/**
+	 * Construct {@code LogRecordFilter}.
+	 *
+	 * @param minLevel The minimum level a log record must have (may be {@code null}).
+	 * @param threadId The thread id a log record must have (may be {@code null}).
+	 * @param messagePattern The pattern a log record's message must contain (may be {@code null}).
+	 */
+	public LogRecordFilter(@Nullable Level minLevel, @Nullable Integer threadId, @Nullable Pattern messagePattern) {
+		this.minLevel = minLevel;
+		this.threadId = threadId;
+		this.messagePattern = messagePattern;
+	}
+
+	/**
+	 * Create a message pattern matching a literal substring.
+	 *
+	 * @param substring The substring to match.
+	 * @return The created pattern.
+	 */
+	public static Pattern substringPattern(String substring) {
+		return Pattern.compile(substring, Pattern.LITERAL | Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+	}
+
+	/**
+	 * Get the minimum level criteria.
+	 *
+	 * @return The minimum level criteria (may be {@code null}).
+	 */
+	@Nullable
+	public Level minLevel() {
+		return this.minLevel;
+	}
+
+	/**
+	 * Get the thread id criteria.
+	 *
+	 * @return The thread id criteria (may be {@code null}).
+	 */
+	@Nullable
+	public Integer threadId() {
+		return this.threadId;
+	}
+
+	/**
+	 * Check whether this filter accepts all log records.
+	 *
+	 * @return {@code true} if this filter accepts all log records.
+	 */
+	public boolean isEmpty() {
+		return this.minLevel == null && this.threadId == null && this.messagePattern == null;
+	}
+
+	/**
+	 * Check whether a log record matches this filter.
+	 *
+	 * @param model The log record to check.
+	 * @return {@code true} if the log record matches this filter.
+	 */
+	public boolean matches(LogRecordModel model) {
+		return matchesIndexed(model) && matchesMessage(model);
+	}
+
+	boolean matchesIndexed(LogRecordModel model) {
+		Level checkedMinLevel = this.minLevel;
+		Integer checkedThreadId = this.threadId;
+
+		return (checkedMinLevel == null || model.getRecord().getLevel().intValue() >= checkedMinLevel.intValue())
+				&& (checkedThreadId == null || model.getRecord().getThreadID() == checkedThreadId.intValue());
+	}
+
+	boolean matchesMessage(LogRecordModel model) {
+		Pattern checkedMessagePattern = this.messagePattern;
+
+		return checkedMessagePattern == null || checkedMessagePattern.matcher(model.getMessage()).find();
+	}
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.stage.logview;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Per level and per thread index of the log records held by the log view.
+ * <p>
+ * The index is maintained incrementally as records are added and evicted (in arrival order). Selecting the records
+ * matching a {@link LogRecordFilter} only visits the records of the matching index buckets.
+ */
+final class LogRecordIndex {
+
+	private final Map<Integer, Deque<LogRecordModel>> levelIndex = new HashMap<>();
+
+	private final Map<Integer, Deque<LogRecordModel>> threadIndex = new HashMap<>();
+
+	private long nextArrival = 0;
+
+	void add(LogRecordModel model) {
+		model.setArrival(this.nextArrival++);
+		bucket(this.levelIndex, model.getRecord().getLevel().intValue()).addLast(model);
+		bucket(this.threadIndex, model.getRecord().getThreadID()).addLast(model);
+	}
+
+	void addAll(Collection<LogRecordModel> models) {
+		for (LogRecordModel model : models) {
+			add(model);
+		}
+	}
+
+	void evict(LogRecordModel model) {
+		evict(this.levelIndex, model.getRecord().getLevel().intValue(), model);
+		evict(this.threadIndex, model.getRecord().getThreadID(), model);
+	}
+
+	void clear() {
+		this.levelIndex.clear();
+		this.threadIndex.clear();
+	}
+
+	List<LogRecordModel> select(LogRecordFilter filter) {
+		Integer threadId = filter.threadId();
+		Level minLevel = filter.minLevel();
+		List<Deque<LogRecordModel>> buckets = new ArrayList<>();
+
+		if (threadId != null) {
+			Deque<LogRecordModel> threadBucket = this.threadIndex.get(threadId);
+
+			if (threadBucket != null) {
+				buckets.add(threadBucket);
+			}
+		} else if (minLevel != null) {
+			for (Map.Entry<Integer, Deque<LogRecordModel>> levelBucket : this.levelIndex.entrySet()) {
+				if (levelBucket.getKey().intValue() >= minLevel.intValue()) {
+					buckets.add(levelBucket.getValue());
+				}
+			}
+		} else {
+			buckets.addAll(this.levelIndex.values());
+		}
+		return merge(buckets, filter);
+	}
+
+	private static List<LogRecordModel> merge(List<Deque<LogRecordModel>> buckets, LogRecordFilter filter) {
+		List<LogRecordModel> selected = new ArrayList<>();
+		int bucketCount = buckets.size();
+		List<Iterator<LogRecordModel>> iterators = new ArrayList<>(bucketCount);
+		@Nullable LogRecordModel[] heads = new @Nullable LogRecordModel[bucketCount];
+
+		for (int bucketIndex = 0; bucketIndex < bucketCount; bucketIndex++) {
+			Iterator<LogRecordModel> iterator = buckets.get(bucketIndex).iterator();
+
+			iterators.add(iterator);
+			heads[bucketIndex] = (iterator.hasNext() ? iterator.next() : null);
+		}
+		// The buckets are already in arrival order; hence a k-way merge restores the overall arrival order
+		while (true) {
+			int nextIndex = -1;
+			LogRecordModel nextHead = null;
+
+			for (int bucketIndex = 0; bucketIndex < bucketCount; bucketIndex++) {
+				LogRecordModel head = heads[bucketIndex];
+
+				if (head != null && (nextHead == null || head.getArrival() < nextHead.getArrival())) {
+					nextIndex = bucketIndex;
+					nextHead = head;
+				}
+			}
+			if (nextHead == null) {
+				break;
+			}
+
+			Iterator<LogRecordModel> iterator = iterators.get(nextIndex);
+
+			heads[nextIndex] = (iterator.hasNext() ? iterator.next() : null);
+			if (filter.matchesIndexed(nextHead) && filter.matchesMessage(nextHead)) {
+				selected.add(nextHead);
+			}
+		}
+		return selected;
+	}
+
+	private static Deque<LogRecordModel> bucket(Map<Integer, Deque<LogRecordModel>> index, int key) {
+		return index.computeIfAbsent(key, k -> new ArrayDeque<>());
+	}
+
+	private static void evict(Map<Integer, Deque<LogRecordModel>> index, int key, LogRecordModel model) {
+		Deque<LogRecordModel> bucket = index.get(key);
+
+		if (bucket != null) {
+			// Evictions happen in arrival order; hence the evicted record is the bucket's head
+			if (bucket.peekFirst() == model) {
+				bucket.pollFirst();
+			} else {
+				bucket.remove(model);
+			}
+			if (bucket.isEmpty()) {
+				index.remove(key);
+			}
+		}
+	}
+
+}
@@ -16,8 +16,11 @@
  */
 package de.carne.jfx.stage.logview;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.logging.LogRecord;
 
+import org.eclipse.jdt.annotation.Nullable;
+
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -26,13 +29,43 @@ import javafx.scene.image.Image;
 
 /**
  * Model class for {@link LogRecord} objects.
+ * <p>
+ * The model only keeps a reference to the represented log record. The displayed values as well as the corresponding
+ * properties are created lazily on first access (e.g. when the record is rendered by a visible cell). The formatted
+ * message is cached after the first access.
  */
 public class LogRecordModel {
 
-	private final ObjectProperty<Image> levelProperty;
-	private final ObjectProperty<LogRecordDate> timeProperty;
-	private final StringProperty threadProperty;
-	private final StringProperty messageProperty;
+	static final double LEVEL_IMAGE_SIZE = 16.0;
+
+	private static final AtomicIntegerFieldUpdater<LogRecordModel> INGEST_REPEATS = AtomicIntegerFieldUpdater
+			.newUpdater(LogRecordModel.class, "ingestRepeats");
+
+	private final LogRecord record;
+
+	private volatile int ingestRepeats = 0;
+
+	private long arrival = 0;
+
+	private int repeatCount = 0;
+
+	@Nullable
+	private String message = null;
+
+	@Nullable
+	private ObjectProperty<@Nullable Image> levelProperty = null;
+
+	@Nullable
+	private ObjectProperty<LogRecordDate> timeProperty = null;
+
+	@Nullable
+	private StringProperty threadProperty = null;
+
+	@Nullable
+	private StringProperty messageProperty = null;
+
+	@Nullable
+	private StringProperty repeatsProperty = null;
 
 	/**
 	 * Construct {@link LogRecord}.
@@ -40,10 +73,53 @@ public class LogRecordModel {
 	 * @param record The represented log record.
 	 */
 	public LogRecordModel(LogRecord record) {
-		this.levelProperty = new SimpleObjectProperty<>(LogViewImages.LEVEL_IMAGES.getImage(record.getLevel(), 16.0));
-		this.timeProperty = new SimpleObjectProperty<>(new LogRecordDate(record.getMillis()));
-		this.threadProperty = new SimpleStringProperty(Integer.toString(record.getThreadID()));
-		this.messageProperty = new SimpleStringProperty(LogViewFormats.MESSAGE_FORMAT.format(record));
+		this.record = record;
+	}
+
+	/**
+	 * Get the represented log record.
+	 *
+	 * @return The represented log record.
+	 */
+	public LogRecord getRecord() {
+		return this.record;
+	}
+
+	void setArrival(long arrival) {
+		this.arrival = arrival;
+	}
+
+	long getArrival() {
+		return this.arrival;
+	}
+
+	void addIngestRepeat() {
+		INGEST_REPEATS.incrementAndGet(this);
+	}
+
+	void updateRepeatCount() {
+		setRepeatCount(this.ingestRepeats);
+	}
+
+	void setRepeatCount(int repeatCount) {
+		if (this.repeatCount != repeatCount) {
+			this.repeatCount = repeatCount;
+
+			StringProperty checkedRepeatsProperty = this.repeatsProperty;
+
+			if (checkedRepeatsProperty != null) {
+				checkedRepeatsProperty.set(formatRepeats(repeatCount));
+			}
+		}
+	}
+
+	/**
+	 * Get the number of identical records folded into this record.
+	 *
+	 * @return The number of identical records folded into this record.
+	 */
+	public int getRepeatCount() {
+		return this.repeatCount;
 	}
 
 	/**
@@ -51,8 +127,12 @@ public class LogRecordModel {
 	 *
 	 * @return The record's log level.
 	 */
+	@Nullable
 	public Image getLevel() {
-		return this.levelProperty.get();
+		ObjectProperty<@Nullable Image> checkedLevelProperty = this.levelProperty;
+
+		return (checkedLevelProperty != null ? checkedLevelProperty.get()
+				: LogViewImages.LEVEL_IMAGES.getImage(this.record.getLevel(), LEVEL_IMAGE_SIZE));
 	}
 
 	/**
@@ -60,8 +140,8 @@ public class LogRecordModel {
 	 *
 	 * @param level The log level to set.
 	 */
-	public void setLevel(Image level) {
-		this.levelProperty.set(level);
+	public void setLevel(@Nullable Image level) {
+		levelProperty().set(level);
 	}
 
 	/**
@@ -69,8 +149,13 @@ public class LogRecordModel {
 	 *
 	 * @return The record's level property.
 	 */
-	public ObjectProperty<Image> levelProperty() {
-		return this.levelProperty;
+	public ObjectProperty<@Nullable Image> levelProperty() {
+		ObjectProperty<@Nullable Image> checkedLevelProperty = this.levelProperty;
+
+		if (checkedLevelProperty == null) {
+			checkedLevelProperty = this.levelProperty = new SimpleObjectProperty<>(getLevel());
+		}
+		return checkedLevelProperty;
 	}
 
 	/**
@@ -79,7 +164,7 @@ public class LogRecordModel {
 	 * @return The record's log time.
 	 */
 	public LogRecordDate getTime() {
-		return this.timeProperty.get();
+		return timeProperty().get();
 	}
 
 	/**
@@ -88,7 +173,7 @@ public class LogRecordModel {
 	 * @param time The log time to set.
 	 */
 	public void setTime(LogRecordDate time) {
-		this.timeProperty.set(time);
+		timeProperty().set(time);
 	}
 
 	/**
@@ -97,7 +182,13 @@ public class LogRecordModel {
 	 * @return The record's time property.
 	 */
 	public ObjectProperty<LogRecordDate> timeProperty() {
-		return this.timeProperty;
+		ObjectProperty<LogRecordDate> checkedTimeProperty = this.timeProperty;
+
+		if (checkedTimeProperty == null) {
+			checkedTimeProperty = this.timeProperty = new SimpleObjectProperty<>(
+					new LogRecordDate(this.record.getMillis()));
+		}
+		return checkedTimeProperty;
 	}
 
 	/**
@@ -106,7 +197,10 @@ public class LogRecordModel {
 	 * @return The record's log thread.
 	 */
 	public String getThread() {
-		return this.threadProperty.get();
+		StringProperty checkedThreadProperty = this.threadProperty;
+
+		return (checkedThreadProperty != null ? checkedThreadProperty.get()
+				: Integer.toString(this.record.getThreadID()));
 	}
 
 	/**
@@ -115,7 +209,7 @@ public class LogRecordModel {
 	 * @param thread The log thread to set.
 	 */
 	public void setThread(String thread) {
-		this.threadProperty.set(thread);
+		threadProperty().set(thread);
 	}
 
 	/**
@@ -124,7 +218,12 @@ public class LogRecordModel {
 	 * @return The record's thread property.
 	 */
 	public StringProperty threadProperty() {
-		return this.threadProperty;
+		StringProperty checkedThreadProperty = this.threadProperty;
+
+		if (checkedThreadProperty == null) {
+			checkedThreadProperty = this.threadProperty = new SimpleStringProperty(getThread());
+		}
+		return checkedThreadProperty;
 	}
 
 	/**
@@ -133,7 +232,18 @@ public class LogRecordModel {
 	 * @return The record's log message.
 	 */
 	public String getMessage() {
-		return this.messageProperty.get();
+		StringProperty checkedMessageProperty = this.messageProperty;
+		String checkedMessage;
+
+		if (checkedMessageProperty != null) {
+			checkedMessage = checkedMessageProperty.get();
+		} else {
+			checkedMessage = this.message;
+			if (checkedMessage == null) {
+				checkedMessage = this.message = LogViewFormats.MESSAGE_FORMAT.format(this.record);
+			}
+		}
+		return checkedMessage;
 	}
 
 	/**
@@ -142,7 +252,7 @@ public class LogRecordModel {
 	 * @param message The log message to set.
 	 */
 	public void setMessage(String message) {
-		this.messageProperty.set(message);
+		messageProperty().set(message);
 	}
 
 	/**
@@ -151,7 +261,42 @@ public class LogRecordModel {
 	 * @return The record's message property.
 	 */
 	public StringProperty messageProperty() {
-		return this.messageProperty;
+		StringProperty checkedMessageProperty = this.messageProperty;
+
+		if (checkedMessageProperty == null) {
+			checkedMessageProperty = this.messageProperty = new SimpleStringProperty(getMessage());
+			this.message = null;
+		}
+		return checkedMessageProperty;
+	}
+
+	/**
+	 * Get the record's repeat count text.
+	 *
+	 * @return The record's repeat count text (empty if the record has not been repeated).
+	 */
+	public String getRepeats() {
+		StringProperty checkedRepeatsProperty = this.repeatsProperty;
+
+		return (checkedRepeatsProperty != null ? checkedRepeatsProperty.get() : formatRepeats(this.repeatCount));
+	}
+
+	/**
+	 * Get the record's repeats property.
+	 *
+	 * @return The record's repeats property.
+	 */
+	public StringProperty repeatsProperty() {
+		StringProperty checkedRepeatsProperty = this.repeatsProperty;
+
+		if (checkedRepeatsProperty == null) {
+			checkedRepeatsProperty = this.repeatsProperty = new SimpleStringProperty(getRepeats());
+		}
+		return checkedRepeatsProperty;
+	}
+
+	private static String formatRepeats(int repeatCount) {
+		return (repeatCount > 0 ? Integer.toString(repeatCount) : "");
 	}
 
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.stage.logview;
+
+import java.util.TimeZone;
+
+/**
+ * Immutable and thread-safe formatter for log times using the pattern {@code HH:mm:ss,SSS}.
+ * <p>
+ * In contrast to {@link java.text.SimpleDateFormat} this formatter can be shared between threads and is able to write
+ * the formatted time directly into a caller provided buffer.
+ */
+public final class LogTimeFormat {
+
+	/**
+	 * The length of a formatted time.
+	 */
+	public static final int LENGTH = 12;
+
+	private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+	private final TimeZone timeZone;
+
+	/**
+	 * Construct {@code LogTimeFormat} for the default time zone.
+	 */
+	public LogTimeFormat() {
+		this(TimeZone.getDefault());
+	}
+
+	/**
+	 * Construct {@code LogTimeFormat}.
+	 *
+	 * @param timeZone The time zone to use.
+	 */
+	public LogTimeFormat(TimeZone timeZone) {
+		this.timeZone = (TimeZone) timeZone.clone();
+	}
+
+	/**
+	 * Format a time and write it to a buffer.
+	 *
+	 * @param millis The time (in ms since the epoch) to format.
+	 * @param buffer The buffer to write to (must provide at least {@link #LENGTH} characters starting at the offset).
+	 * @param offset The buffer offset to start writing at.
+	 * @return The buffer offset following the written characters.
+	 */
+	public int format(long millis, char[] buffer, int offset) {
+		int millisOfDay = (int) Math.floorMod(millis + this.timeZone.getOffset(millis), MILLIS_PER_DAY);
+		int millisPart = millisOfDay % 1000;
+		int secondsOfDay = millisOfDay / 1000;
+		int secondsPart = secondsOfDay % 60;
+		int minutesOfDay = secondsOfDay / 60;
+		int minutesPart = minutesOfDay % 60;
+		int hoursPart = minutesOfDay / 60;
+		int position = offset;
+
+		position = formatDigits2(hoursPart, buffer, position);
+		buffer[position++] = ':';
+		position = formatDigits2(minutesPart, buffer, position);
+		buffer[position++] = ':';
+		position = formatDigits2(secondsPart, buffer, position);
+		buffer[position++] = ',';
+		buffer[position++] = (char) ('0' + millisPart / 100);
+		return formatDigits2(millisPart % 100, buffer, position);
+	}
+
+	/**
+	 * Format a time.
+	 *
+	 * @param millis The time (in ms since the epoch) to format.
+	 * @return The formatted time.
+	 */
+	public String format(long millis) {
+		char[] buffer = new char[LENGTH];
+
+		format(millis, buffer, 0);
+		return new String(buffer);
+	}
+
+	private static int formatDigits2(int value, char[] buffer, int offset) {
+		buffer[offset] = (char) ('0' + value / 10);
+		buffer[offset + 1] = (char) ('0' + value % 10);
+		return offset + 2;
+	}
+
+}
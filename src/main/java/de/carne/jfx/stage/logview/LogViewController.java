@@ -16,29 +16,64 @@
  */
 package de.carne.jfx.stage.logview;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Formatter;
 import java.util.logging.Handler;
+import java.util.logging.Level;
 import java.util.logging.LogRecord;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.zip.GZIPOutputStream;
 
 import org.eclipse.jdt.annotation.Nullable;
 
 import de.carne.boot.logging.Log;
 import de.carne.boot.logging.LogBuffer;
+import de.carne.boot.logging.LogLevel;
+import de.carne.boot.logging.LogLineFormatter;
 import de.carne.jfx.application.PlatformHelper;
 import de.carne.jfx.scene.control.Alerts;
 import de.carne.jfx.scene.control.cell.ImageViewTableCell;
 import de.carne.jfx.stage.StageController;
+import de.carne.jfx.util.CircularObservableList;
 import de.carne.jfx.util.FileChooserHelper;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.ScrollBar;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.image.Image;
 import javafx.stage.FileChooser;
@@ -46,6 +81,7 @@ import javafx.stage.FileChooser.ExtensionFilter;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import javafx.util.StringConverter;
 
 /**
  * Log view window.
@@ -54,14 +90,41 @@ public class LogViewController extends StageController {
 
 	private static final Log LOG = new Log();
 
-	private static final int RECORD_LIMIT = 1000;
+	/**
+	 * Default maximum number of log records displayed by the view.
+	 */
+	public static final int DEFAULT_RECORD_LIMIT = 1000;
+
+	/**
+	 * Default maximum number of log records added to the view per drain.
+	 */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+
+	/**
+	 * Default minimum interval (in ms) between two drains.
+	 */
+	public static final long DEFAULT_DRAIN_INTERVAL = 0;
+
+	private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+	private static final String INVALID_INPUT_STYLE = "-fx-text-fill: red;";
+
+	private static final double SCROLL_TAIL_EPSILON = 1e-6;
 
 	private final Handler logHandler = new Handler() {
 
 		@Override
 		public void publish(@Nullable LogRecord record) {
 			if (record != null) {
-				PlatformHelper.runLater(() -> onPublish(record));
+				LogRecordModel model = LogViewController.this.ingestPolicy.ingest(record);
+
+				if (model == null) {
+					onIngestUpdate();
+				} else if (LogViewController.this.batchedDelivery) {
+					onEnqueue(model);
+				} else {
+					PlatformHelper.runLater(() -> onPublish(Collections.singletonList(model)));
+				}
 			}
 		}
 
@@ -77,11 +140,94 @@ public class LogViewController extends StageController {
 
 	};
 
+	private final LogIngestPolicy ingestPolicy = new LogIngestPolicy();
+
+	private final AtomicBoolean ingestUpdated = new AtomicBoolean(false);
+
+	private final Object scrollToTailKey = new Object();
+
+	private boolean scrollToTailPending = false;
+
+	private boolean scrollToTailArmed = false;
+
+	private final AnimationTimer scrollToTailReset = new AnimationTimer() {
+
+		@Override
+		public void handle(long now) {
+			onScrollToTailReset();
+		}
+
+	};
+
+	@Nullable
+	private ScrollBar verticalScrollBar = null;
+
+	private final Queue<LogRecordModel> pendingRecords = new ConcurrentLinkedQueue<>();
+
+	private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+
+	private final AnimationTimer drainTimer = new AnimationTimer() {
+
+		@Override
+		public void handle(long now) {
+			onDrain(now);
+		}
+
+	};
+
+	private volatile boolean batchedDelivery = true;
+
+	private int recordLimit = DEFAULT_RECORD_LIMIT;
+
+	private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+	private long drainIntervalNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_DRAIN_INTERVAL);
+
+	private long lastDrainNanos = 0;
+
+	private CircularObservableList<LogRecordModel> records = new CircularObservableList<>(DEFAULT_RECORD_LIMIT);
+
+	private final LogRecordIndex recordIndex = new LogRecordIndex();
+
+	private LogRecordFilter recordFilter = LogRecordFilter.NONE;
+
+	@Nullable
+	private CircularObservableList<LogRecordModel> filteredRecords = null;
+
+	@Nullable
+	private LogRecordModel lastModel = null;
+
+	private long displayedDroppedCount = 0;
+
+	@Nullable
+	private Path archiveDirectory = null;
+
+	@Nullable
+	private LogRecordArchive archive = null;
+
+	@Nullable
+	private LogRecordArchiveList archivedRecords = null;
+
 	private final ChangeListener<Boolean> toggleListener = (p, o, n) -> onToggled(n.booleanValue());
 
 	@Nullable
 	private BooleanProperty toggleProperty = null;
 
+	@FXML
+	private ComboBox<Level> ctlFilterLevel;
+
+	@FXML
+	private TextField ctlFilterThread;
+
+	@FXML
+	private TextField ctlFilterMessage;
+
+	@FXML
+	private CheckBox ctlFilterRegex;
+
+	@FXML
+	private CheckBox ctlFollowTail;
+
 	@FXML
 	private TableView<LogRecordModel> ctlLogRecords;
 
@@ -97,11 +243,59 @@ public class LogViewController extends StageController {
 	@FXML
 	private TableColumn<LogRecordModel, String> ctlLogRecordMessage;
 
+	@FXML
+	private TableColumn<LogRecordModel, String> ctlLogRecordRepeats;
+
+	@FXML
+	private Label ctlDroppedInfo;
+
+	@FXML
+	private ProgressBar ctlExportProgress;
+
+	@FXML
+	private Button ctlCmdCancelExport;
+
+	@FXML
+	private Button ctlCmdClear;
+
+	@FXML
+	private Button ctlCmdExport;
+
+	@FXML
+	private Button ctlCmdClose;
+
+	@Nullable
+	private ExportTask exportTask = null;
+
 	@SuppressWarnings("unused")
 	@FXML
 	private void onCmdClear(ActionEvent evt) {
 		LogBuffer.flush(LOG.logger());
-		this.ctlLogRecords.getItems().clear();
+		this.records.clear();
+		this.recordIndex.clear();
+		this.lastModel = null;
+		this.ingestPolicy.resetCounts();
+		updateDroppedInfo();
+
+		CircularObservableList<LogRecordModel> checkedFilteredRecords = this.filteredRecords;
+
+		if (checkedFilteredRecords != null) {
+			checkedFilteredRecords.clear();
+		}
+
+		LogRecordArchive checkedArchive = this.archive;
+
+		if (checkedArchive != null) {
+			try {
+				checkedArchive.clear();
+			} catch (IOException e) {
+				LOG.error(e, "Failed to clear log archive");
+				closeArchive();
+			}
+			if (this.recordFilter.isEmpty()) {
+				showUnfilteredRecords();
+			}
+		}
 		LOG.notice("Log buffer cleared");
 	}
 
@@ -112,6 +306,7 @@ public class LogViewController extends StageController {
 		List<ExtensionFilter> extensionFilters = new ArrayList<>();
 
 		extensionFilters.add(FileChooserHelper.filterFromString(LogViewI18N.strFilterLogfiles()));
+		extensionFilters.add(FileChooserHelper.filterFromString(LogViewI18N.strFilterGzlogfiles()));
 		extensionFilters.add(FileChooserHelper.filterFromString(LogViewI18N.strFilterTxtfiles()));
 		extensionFilters.add(FileChooserHelper.filterFromString(LogViewI18N.strFilterAllfiles()));
 		chooser.getExtensionFilters().addAll(extensionFilters);
@@ -121,13 +316,22 @@ public class LogViewController extends StageController {
 
 		if (file != null) {
 			LOG.info("Exporting log buffer to file: ''{0}''...", file);
-			try {
-				LogBuffer.exportTo(LOG.logger(), file, false);
-			} catch (IOException e) {
-				Alerts.unexpected(e).showAndWait();
-			}
+
+			ExportTask task = this.exportTask = new ExportTask(file.toPath(), file.getName().endsWith(".gz"));
+
+			this.ctlExportProgress.progressProperty().bind(task.progressProperty());
+			executeBackgroundTask(task);
 		}
+	}
+
+	@SuppressWarnings("unused")
+	@FXML
+	private void onCmdCancelExport(ActionEvent evt) {
+		ExportTask task = this.exportTask;
 
+		if (task != null) {
+			task.cancel();
+		}
 	}
 
 	@SuppressWarnings("unused")
@@ -136,30 +340,337 @@ public class LogViewController extends StageController {
 		close(false);
 	}
 
+	private void onEnqueue(LogRecordModel model) {
+		this.pendingRecords.add(model);
+		scheduleDrain();
+	}
+
+	private void onIngestUpdate() {
+		// Repeated or dropped records only require a single refresh of the ingest state per pulse
+		if (this.ingestUpdated.compareAndSet(false, true)) {
+			if (this.batchedDelivery) {
+				scheduleDrain();
+			} else {
+				PlatformHelper.runLater(() -> onPublish(Collections.emptyList()));
+			}
+		}
+	}
+
+	private void scheduleDrain() {
+		if (this.drainScheduled.compareAndSet(false, true)) {
+			Platform.runLater(this.drainTimer::start);
+		}
+	}
+
+	private void onDrain(long now) {
+		if (this.drainIntervalNanos > 0 && now - this.lastDrainNanos < this.drainIntervalNanos) {
+			return;
+		}
+		this.lastDrainNanos = now;
+
+		List<LogRecordModel> batch = new ArrayList<>();
+		LogRecordModel model;
+
+		while (batch.size() < this.maxBatchSize && (model = this.pendingRecords.poll()) != null) {
+			batch.add(model);
+		}
+		if (!batch.isEmpty() || this.ingestUpdated.get()) {
+			onPublish(batch);
+		}
+		if (this.pendingRecords.isEmpty()) {
+			this.drainTimer.stop();
+			this.drainScheduled.set(false);
+			// Restart in case a record has been enqueued while we were stopping
+			if (!this.pendingRecords.isEmpty() && this.drainScheduled.compareAndSet(false, true)) {
+				this.drainTimer.start();
+			}
+		}
+	}
+
 	@Nullable
-	Void onPublish(LogRecord record) {
-		ObservableList<LogRecordModel> records = this.ctlLogRecords.getItems();
+	Void onPublish(List<LogRecordModel> batch) {
+		updateIngestState();
+		if (batch.isEmpty()) {
+			return null;
+		}
+		openArchive();
+
+		LogRecordArchiveList checkedArchivedRecords = this.archivedRecords;
+		int archivedRecordsSize = (checkedArchivedRecords != null ? checkedArchivedRecords.size() : 0);
+		int batchStart = Math.max(batch.size() - this.recordLimit, 0);
+		List<LogRecordModel> batchModels = batch.subList(batchStart, batch.size());
 
-		while (records.size() >= RECORD_LIMIT) {
-			records.remove(0);
+		for (LogRecordModel model : batchModels) {
+			model.updateRepeatCount();
+		}
+		this.lastModel = batchModels.get(batchModels.size() - 1);
+		evictRecords(Math.min(this.records.size() + batchModels.size() - this.recordLimit, this.records.size()));
+		if (batchStart > 0 && this.archive != null) {
+			List<LogRecordModel> overflowModels = batch.subList(0, batchStart);
+
+			for (LogRecordModel model : overflowModels) {
+				model.updateRepeatCount();
+			}
+			archiveRecords(overflowModels);
 		}
-		records.add(new LogRecordModel(record));
+		this.records.addAll(batchModels);
+		this.recordIndex.addAll(batchModels);
+		// The archive list is not backed by an observable list; hence we have to report the appended records ourselves
+		if (checkedArchivedRecords != null && checkedArchivedRecords == this.archivedRecords) {
+			checkedArchivedRecords.fireAdded(archivedRecordsSize, checkedArchivedRecords.size());
+		}
+
+		CircularObservableList<LogRecordModel> checkedFilteredRecords = this.filteredRecords;
 
-		int selectedIndex = this.ctlLogRecords.getSelectionModel().getSelectedIndex();
+		if (checkedFilteredRecords != null) {
+			List<LogRecordModel> matchingModels = new ArrayList<>(batchModels.size());
 
-		selectedIndex = (selectedIndex < 0 ? 0 : selectedIndex + 1);
-		if (selectedIndex + 1 == records.size()) {
-			this.ctlLogRecords.getSelectionModel().select(selectedIndex);
-			this.ctlLogRecords.scrollTo(selectedIndex);
+			for (LogRecordModel model : batchModels) {
+				if (this.recordFilter.matches(model)) {
+					matchingModels.add(model);
+				}
+			}
+			checkedFilteredRecords.addAll(matchingModels);
 		}
+		scheduleScrollToTail();
 		return null;
 	}
 
+	private void scheduleScrollToTail() {
+		// Scrolling triggers a layout pass; hence we scroll at most once per pulse
+		if (this.ctlFollowTail.isSelected()) {
+			this.scrollToTailPending = true;
+			PlatformHelper.runLaterCoalesced(this.scrollToTailKey, Boolean.TRUE, b -> onScrollToTail());
+		}
+	}
+
+	private void onScrollToTail() {
+		int recordCount = this.ctlLogRecords.getItems().size();
+
+		if (this.ctlFollowTail.isSelected() && recordCount > 0) {
+			this.ctlLogRecords.scrollTo(recordCount - 1);
+			// The scroll position is applied by the pulse's layout pass; keep ignoring scroll bar changes until the
+			// next pulse, so the resulting change is not taken for a user action
+			this.scrollToTailPending = true;
+			this.scrollToTailArmed = true;
+			this.scrollToTailReset.start();
+		} else {
+			this.scrollToTailPending = false;
+		}
+	}
+
+	private void onScrollToTailReset() {
+		// The timer may already run in the pulse the scroll has been requested in; hence skip the first invocation
+		// after every scroll request
+		if (this.scrollToTailArmed) {
+			this.scrollToTailArmed = false;
+		} else {
+			this.scrollToTailReset.stop();
+			this.scrollToTailPending = false;
+		}
+	}
+
+	private void onTableSkinChanged() {
+		if (this.verticalScrollBar == null) {
+			for (Node node : this.ctlLogRecords.lookupAll(".scroll-bar")) {
+				if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+					ScrollBar scrollBar = (ScrollBar) node;
+
+					scrollBar.valueProperty().addListener((p, o, n) -> onVerticalScroll(scrollBar));
+					this.verticalScrollBar = scrollBar;
+					break;
+				}
+			}
+		}
+	}
+
+	private void onVerticalScroll(ScrollBar scrollBar) {
+		// Scroll position changes caused by appended records are pending a scroll to the tail and are ignored; any
+		// other change (wheel, scroll bar drag, keyboard) pins the view if it reaches the tail and unpins it otherwise
+		if (!this.scrollToTailPending && scrollBar.isVisible()) {
+			boolean atTail = scrollBar.getValue() >= scrollBar.getMax() - SCROLL_TAIL_EPSILON;
+
+			if (this.ctlFollowTail.isSelected() != atTail) {
+				this.ctlFollowTail.setSelected(atTail);
+			}
+		}
+	}
+
+	private void evictRecords(int evictCount) {
+		CircularObservableList<LogRecordModel> checkedFilteredRecords = this.filteredRecords;
+		int filteredEvictCount = 0;
+		List<LogRecordModel> evictedModels = new ArrayList<>(Math.max(evictCount, 0));
+
+		for (int evictIndex = 0; evictIndex < evictCount; evictIndex++) {
+			LogRecordModel evicted = this.records.get(evictIndex);
+
+			evictedModels.add(evicted);
+			this.recordIndex.evict(evicted);
+			// Filtered records are kept in arrival order; hence evicted records are at the head
+			if (checkedFilteredRecords != null && filteredEvictCount < checkedFilteredRecords.size()
+					&& checkedFilteredRecords.get(filteredEvictCount) == evicted) {
+				filteredEvictCount++;
+			}
+		}
+		if (checkedFilteredRecords != null && filteredEvictCount > 0) {
+			checkedFilteredRecords.remove(0, filteredEvictCount);
+		}
+		archiveRecords(evictedModels);
+	}
+
+	private void updateIngestState() {
+		this.ingestUpdated.set(false);
+
+		LogRecordModel checkedLastModel = this.lastModel;
+
+		// Only the most recently ingested record may have received further repeats
+		if (checkedLastModel != null) {
+			checkedLastModel.updateRepeatCount();
+		}
+		updateDroppedInfo();
+	}
+
+	private void updateDroppedInfo() {
+		long droppedCount = this.ingestPolicy.droppedCount();
+
+		if (this.displayedDroppedCount != droppedCount) {
+			this.displayedDroppedCount = droppedCount;
+			this.ctlDroppedInfo.setText(LogViewI18N.strLabelDropped(Long.valueOf(droppedCount)));
+			this.ctlDroppedInfo.setVisible(droppedCount > 0);
+			this.ctlDroppedInfo.setManaged(droppedCount > 0);
+		}
+	}
+
+	private void openArchive() {
+		Path checkedArchiveDirectory = this.archiveDirectory;
+
+		if (this.archive == null && checkedArchiveDirectory != null) {
+			try {
+				this.archive = LogRecordArchive.create(checkedArchiveDirectory);
+			} catch (IOException e) {
+				LOG.error(e, "Failed to create log archive in ''{0}''", checkedArchiveDirectory);
+				this.archiveDirectory = null;
+			}
+			if (this.recordFilter.isEmpty()) {
+				showUnfilteredRecords();
+			}
+		}
+	}
+
+	private void archiveRecords(List<LogRecordModel> models) {
+		LogRecordArchive checkedArchive = this.archive;
+
+		if (checkedArchive != null && !models.isEmpty()) {
+			try {
+				checkedArchive.append(models);
+			} catch (IOException e) {
+				LOG.error(e, "Failed to archive log records; disabling log archive");
+				this.archiveDirectory = null;
+				closeArchive();
+				if (this.recordFilter.isEmpty()) {
+					showUnfilteredRecords();
+				}
+			}
+		}
+	}
+
+	private void closeArchive() {
+		LogRecordArchive checkedArchive = this.archive;
+
+		if (checkedArchive != null) {
+			this.archive = null;
+			this.archivedRecords = null;
+			try {
+				checkedArchive.close();
+			} catch (IOException e) {
+				LOG.warning(e, "Failed to close log archive");
+			}
+		}
+	}
+
+	private void onFilterChanged() {
+		Level minLevel = this.ctlFilterLevel.getValue();
+
+		if (LogLevel.LEVEL_TRACE.equals(minLevel)) {
+			minLevel = null;
+		}
+
+		Integer threadId = null;
+		String threadInput = this.ctlFilterThread.getText().trim();
+		boolean threadInputValid = true;
+
+		if (!threadInput.isEmpty()) {
+			try {
+				threadId = Integer.valueOf(threadInput);
+			} catch (NumberFormatException e) {
+				threadInputValid = false;
+			}
+		}
+		this.ctlFilterThread.setStyle(threadInputValid ? "" : INVALID_INPUT_STYLE);
+
+		Pattern messagePattern = null;
+		String messageInput = this.ctlFilterMessage.getText();
+		boolean messageInputValid = true;
+
+		if (!messageInput.isEmpty()) {
+			if (this.ctlFilterRegex.isSelected()) {
+				try {
+					messagePattern = Pattern.compile(messageInput, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+				} catch (PatternSyntaxException e) {
+					messageInputValid = false;
+				}
+			} else {
+				messagePattern = LogRecordFilter.substringPattern(messageInput);
+			}
+		}
+		this.ctlFilterMessage.setStyle(messageInputValid ? "" : INVALID_INPUT_STYLE);
+		if (threadInputValid && messageInputValid) {
+			setFilter(new LogRecordFilter(minLevel, threadId, messagePattern));
+		}
+	}
+
+	private void showUnfilteredRecords() {
+		LogRecordArchive checkedArchive = this.archive;
+
+		if (checkedArchive != null) {
+			LogRecordArchiveList newArchivedRecords = new LogRecordArchiveList(checkedArchive, this.records);
+
+			this.archivedRecords = newArchivedRecords;
+			setDisplayedRecords(newArchivedRecords);
+		} else {
+			this.archivedRecords = null;
+			setDisplayedRecords(this.records);
+		}
+	}
+
+	private void setDisplayedRecords(ObservableList<LogRecordModel> displayedRecords) {
+		// Archived records are paged in on demand; sorting them would require reading the whole archive
+		boolean sortable = !(displayedRecords instanceof LogRecordArchiveList);
+
+		if (sortable) {
+			SortedList<LogRecordModel> sortedRecords = new SortedList<>(displayedRecords);
+
+			sortedRecords.comparatorProperty().bind(this.ctlLogRecords.comparatorProperty());
+			this.ctlLogRecords.setItems(sortedRecords);
+		} else {
+			this.ctlLogRecords.getSortOrder().clear();
+			this.ctlLogRecords.setItems(displayedRecords);
+		}
+		for (TableColumn<LogRecordModel, ?> column : this.ctlLogRecords.getColumns()) {
+			column.setSortable(sortable);
+		}
+		scheduleScrollToTail();
+	}
+
 	private void onShowingChanged(boolean showing) {
 		if (showing) {
 			LogBuffer.addHandler(LOG.logger(), this.logHandler, true);
 		} else {
 			LogBuffer.removeHandler(LOG.logger(), this.logHandler);
+			this.drainTimer.stop();
+			this.pendingRecords.clear();
+			this.drainScheduled.set(false);
+			closeArchive();
 			setToggle(null);
 		}
 	}
@@ -170,6 +681,22 @@ public class LogViewController extends StageController {
 		}
 	}
 
+	@Override
+	protected void setBlocked(boolean blocked) {
+		// Keep the log records browsable while an export is running
+		this.ctlCmdClear.setDisable(blocked);
+		this.ctlCmdExport.setDisable(blocked);
+		this.ctlCmdClose.setDisable(blocked);
+		this.ctlExportProgress.setVisible(blocked);
+		this.ctlExportProgress.setManaged(blocked);
+		this.ctlCmdCancelExport.setVisible(blocked);
+		this.ctlCmdCancelExport.setManaged(blocked);
+		if (!blocked) {
+			this.ctlExportProgress.progressProperty().unbind();
+			this.exportTask = null;
+		}
+	}
+
 	@Override
 	protected StageStyle getStyle() {
 		return StageStyle.UTILITY;
@@ -183,11 +710,45 @@ public class LogViewController extends StageController {
 	@Override
 	protected void setupStage(Stage stage) {
 		stage.setTitle(LogViewI18N.strStageTitle());
-		this.ctlLogRecordLevel.setCellFactory(ImageViewTableCell.forTableColumn());
+		this.ctlFilterLevel.getItems().addAll(LogLevel.LEVEL_TRACE, LogLevel.LEVEL_DEBUG, LogLevel.LEVEL_INFO,
+				LogLevel.LEVEL_WARNING, LogLevel.LEVEL_ERROR);
+		this.ctlFilterLevel.setConverter(new StringConverter<Level>() {
+
+			@Override
+			public String toString(@Nullable Level level) {
+				return (level != null ? level.getLocalizedName() : "");
+			}
+
+			@Override
+			@Nullable
+			public Level fromString(@Nullable String string) {
+				Level level = null;
+
+				for (Level item : LogViewController.this.ctlFilterLevel.getItems()) {
+					if (item.getLocalizedName().equals(string) || item.getName().equals(string)) {
+						level = item;
+						break;
+					}
+				}
+				return level;
+			}
+
+		});
+		this.ctlFilterLevel.setValue(LogLevel.LEVEL_TRACE);
+		this.ctlFilterLevel.valueProperty().addListener((p, o, n) -> onFilterChanged());
+		this.ctlFilterThread.textProperty().addListener((p, o, n) -> onFilterChanged());
+		this.ctlFilterMessage.textProperty().addListener((p, o, n) -> onFilterChanged());
+		this.ctlFilterRegex.selectedProperty().addListener((p, o, n) -> onFilterChanged());
+		this.ctlFollowTail.selectedProperty().addListener((p, o, n) -> scheduleScrollToTail());
+		this.ctlLogRecords.skinProperty().addListener((p, o, n) -> onTableSkinChanged());
+		onTableSkinChanged();
+		showUnfilteredRecords();
+		this.ctlLogRecordLevel.setCellFactory(ImageViewTableCell.forTableColumn(LogRecordModel.LEVEL_IMAGE_SIZE));
 		this.ctlLogRecordLevel.setCellValueFactory(new PropertyValueFactory<>("level"));
 		this.ctlLogRecordTime.setCellValueFactory(new PropertyValueFactory<>("time"));
 		this.ctlLogRecordThread.setCellValueFactory(new PropertyValueFactory<>("thread"));
 		this.ctlLogRecordMessage.setCellValueFactory(new PropertyValueFactory<>("message"));
+		this.ctlLogRecordRepeats.setCellValueFactory(new PropertyValueFactory<>("repeats"));
 		stage.showingProperty().addListener((p, o, n) -> onShowingChanged(n.booleanValue()));
 	}
 
@@ -213,4 +774,265 @@ public class LogViewController extends StageController {
 		return this;
 	}
 
+	/**
+	 * Set the maximum number of log records displayed by the view.
+	 * <p>
+	 * If the limit is exceeded, the oldest records are removed from the view (or moved to the archive if one has been
+	 * set up via {@link #setArchiveDirectory(Path)}).
+	 *
+	 * @param recordLimit The record limit to use.
+	 * @return This log view for chaining.
+	 */
+	public LogViewController setRecordLimit(int recordLimit) {
+		if (recordLimit <= 0) {
+			throw new IllegalArgumentException("Invalid record limit: " + recordLimit);
+		}
+		if (this.recordLimit != recordLimit) {
+			int evictCount = Math.max(this.records.size() - recordLimit, 0);
+
+			// Records exceeding the new limit are evicted (and archived) the same way as during publishing
+			if (evictCount > 0) {
+				openArchive();
+				evictRecords(evictCount);
+			}
+
+			CircularObservableList<LogRecordModel> newRecords = new CircularObservableList<>(recordLimit);
+
+			newRecords.addAll(this.records.subList(evictCount, this.records.size()));
+			this.records = newRecords;
+			this.recordLimit = recordLimit;
+			this.filteredRecords = null;
+			if (this.recordFilter.isEmpty()) {
+				showUnfilteredRecords();
+			} else {
+				setFilter(this.recordFilter);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Set the filter determining which log records are displayed.
+	 * <p>
+	 * Changing the filter selects the matching records via the view's per level and per thread index. Newly published
+	 * records are matched against the active filter one by one.
+	 *
+	 * @param filter The filter to set.
+	 * @return This log view for chaining.
+	 */
+	public LogViewController setFilter(LogRecordFilter filter) {
+		this.recordFilter = filter;
+		if (filter.isEmpty()) {
+			if (this.filteredRecords != null) {
+				this.filteredRecords = null;
+				showUnfilteredRecords();
+			}
+		} else {
+			CircularObservableList<LogRecordModel> newFilteredRecords = new CircularObservableList<>(this.recordLimit);
+
+			newFilteredRecords.addAll(this.recordIndex.select(filter));
+			this.filteredRecords = newFilteredRecords;
+			this.archivedRecords = null;
+			setDisplayedRecords(newFilteredRecords);
+		}
+		return this;
+	}
+
+	/**
+	 * Enable or disable tail-follow mode (enabled by default).
+	 * <p>
+	 * While following the tail, the view keeps the most recent log record visible. The selection is never changed by
+	 * the view itself. Scrolling away from the tail (by any means) disables tail-follow mode and scrolling back to the
+	 * tail enables it again.
+	 *
+	 * @param followTail Whether to follow the tail or not.
+	 * @return This log view for chaining.
+	 */
+	public LogViewController setFollowTail(boolean followTail) {
+		this.ctlFollowTail.setSelected(followTail);
+		return this;
+	}
+
+	/**
+	 * Get the policy deciding which of the published log records are ingested by this view.
+	 * <p>
+	 * By default every published record is ingested. If deduplication is enabled, consecutive identical records are
+	 * folded into a single row showing the repeat count. Records dropped due to the rate limit are counted and the
+	 * count is displayed by the view.
+	 *
+	 * @return The ingest policy of this view.
+	 */
+	public LogIngestPolicy getIngestPolicy() {
+		return this.ingestPolicy;
+	}
+
+	/**
+	 * Set the directory to archive the log records evicted from the view to.
+	 * <p>
+	 * If set, records exceeding the record limit are spilled to a disk archive in the given directory instead of being
+	 * discarded. Scrolling past the in-memory records pages the archived records back in on demand. Filters only apply
+	 * to the in-memory records and sorting is not available while archived records are displayed. The archive is
+	 * discarded when the view is closed or the archive directory is changed.
+	 *
+	 * @param directory The directory to create the archive in or {@code null} to disable archiving.
+	 * @return This log view for chaining.
+	 */
+	public LogViewController setArchiveDirectory(@Nullable Path directory) {
+		closeArchive();
+		this.archiveDirectory = directory;
+		if (this.recordFilter.isEmpty()) {
+			showUnfilteredRecords();
+		}
+		return this;
+	}
+
+	/**
+	 * Set the log record delivery mode.
+	 * <p>
+	 * In batched mode (the default) publishing a log record never blocks the logging thread. Instead records are queued
+	 * and added to the view in batches once per pulse. In non-batched mode every record is handed over to the JavaFX
+	 * application thread individually and the logging thread waits until it has been added.
+	 *
+	 * @param batched Whether to use batched delivery.
+	 * @return This log view for chaining.
+	 */
+	public LogViewController setBatchedDelivery(boolean batched) {
+		this.batchedDelivery = batched;
+		return this;
+	}
+
+	/**
+	 * Set the maximum number of log records added to the view per drain in batched delivery mode.
+	 *
+	 * @param maxBatchSize The maximum batch size to use.
+	 * @return This log view for chaining.
+	 * @see #setBatchedDelivery(boolean)
+	 */
+	public LogViewController setMaxBatchSize(int maxBatchSize) {
+		if (maxBatchSize <= 0) {
+			throw new IllegalArgumentException("Invalid batch size: " + maxBatchSize);
+		}
+		this.maxBatchSize = maxBatchSize;
+		return this;
+	}
+
+	/**
+	 * Set the minimum interval between two drains in batched delivery mode.
+	 * <p>
+	 * Drains are always aligned to the JavaFX pulse. An interval of {@code 0} drains on every pulse.
+	 *
+	 * @param interval The drain interval to use.
+	 * @param unit The interval's time unit.
+	 * @return This log view for chaining.
+	 * @see #setBatchedDelivery(boolean)
+	 */
+	public LogViewController setDrainInterval(long interval, TimeUnit unit) {
+		if (interval < 0) {
+			throw new IllegalArgumentException("Invalid drain interval: " + interval);
+		}
+		this.drainIntervalNanos = unit.toNanos(interval);
+		return this;
+	}
+
+	private class ExportTask extends BackgroundTask<@Nullable Void> {
+
+		private final Path file;
+
+		private final boolean compress;
+
+		ExportTask(Path file, boolean compress) {
+			this.file = file;
+			this.compress = compress;
+		}
+
+		@Override
+		@Nullable
+		protected Void call() throws Exception {
+			List<LogRecord> records = collectRecords();
+			int recordCount = records.size();
+			Formatter formatter = new LogLineFormatter();
+			boolean completed = false;
+
+			try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+					Writer writer = newWriter(channel)) {
+				int recordIndex = 0;
+
+				for (LogRecord record : records) {
+					if (isCancelled()) {
+						break;
+					}
+					writer.write(formatter.format(record));
+					recordIndex++;
+					if ((recordIndex & 0xff) == 0 || recordIndex == recordCount) {
+						updateProgress(recordIndex, recordCount);
+					}
+				}
+				completed = !isCancelled();
+			} finally {
+				if (!completed) {
+					Files.deleteIfExists(this.file);
+				}
+			}
+			return null;
+		}
+
+		private List<LogRecord> collectRecords() {
+			List<LogRecord> records = Collections.synchronizedList(new ArrayList<>());
+			Handler collector = new Handler() {
+
+				@Override
+				public void publish(@Nullable LogRecord record) {
+					if (record != null) {
+						records.add(record);
+					}
+				}
+
+				@Override
+				public void flush() {
+					// Nothing to do
+				}
+
+				@Override
+				public void close() throws SecurityException {
+					// Nothing to do
+				}
+
+			};
+
+			// Adding a handler replays the currently buffered records
+			LogBuffer.addHandler(LOG.logger(), collector, true);
+			LogBuffer.removeHandler(LOG.logger(), collector);
+			return records;
+		}
+
+		private Writer newWriter(FileChannel channel) throws IOException {
+			OutputStream out = Channels.newOutputStream(channel);
+
+			if (this.compress) {
+				out = new GZIPOutputStream(out, EXPORT_BUFFER_SIZE);
+			}
+			return new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset()), EXPORT_BUFFER_SIZE);
+		}
+
+		@Override
+		protected void succeeded() {
+			super.succeeded();
+			LOG.info("Log buffer exported to file: ''{0}''", this.file);
+		}
+
+		@Override
+		protected void cancelled() {
+			super.cancelled();
+			LOG.info("Log buffer export to file: ''{0}'' cancelled", this.file);
+		}
+
+		@Override
+		protected void failed() {
+			super.failed();
+			Alerts.unexpected(getException()).showAndWait();
+		}
+
+	}
+
 }
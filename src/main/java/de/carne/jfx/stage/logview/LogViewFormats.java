@@ -46,7 +46,15 @@ public final class LogViewFormats {
 
 	/**
 	 * {@link DateFormat} for log time formatting.
+	 *
+	 * @deprecated {@link DateFormat} is not thread-safe; use {@link #TIME_FORMATTER}.
 	 */
+	@Deprecated
 	public static final DateFormat TIME_FORMAT = new SimpleDateFormat("HH:mm:ss,SSS");
 
+	/**
+	 * Thread-safe {@link LogTimeFormat} for log time formatting.
+	 */
+	public static final LogTimeFormat TIME_FORMATTER = new LogTimeFormat();
+
 }
@@ -33,7 +33,6 @@ public class LogViewImages {
 	/**
 	 * Log level images.
 	 */
-	public static final ImageRegistry<Level> LEVEL_IMAGES = new ImageRegistry<>(
-			(o1, o2) -> Integer.compare(o1.intValue(), o2.intValue()));
+	public static final ImageRegistry<Level> LEVEL_IMAGES = new ImageRegistry<>();
 
 }
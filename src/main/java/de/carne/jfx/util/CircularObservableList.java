@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+
+/**
+ * Fixed capacity {@link ObservableList} backed by a circular buffer.
+ * <p>
+ * Elements are always appended to the end of the list. If the list's capacity is exceeded, the oldest elements are
+ * evicted from the start of the list. Appending as well as evicting an element is performed in constant time and bulk
+ * appends are reported as a single combined change.
+ *
+ * @param <E> The list element type.
+ */
+public final class CircularObservableList<E> extends ObservableListBase<E> {
+
+	private final Object[] elements;
+
+	private int head = 0;
+
+	private int size = 0;
+
+	/**
+	 * Construct {@code CircularObservableList}.
+	 *
+	 * @param capacity The maximum number of elements to hold.
+	 */
+	public CircularObservableList(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Invalid capacity: " + capacity);
+		}
+		this.elements = new Object[capacity];
+	}
+
+	/**
+	 * Get this list's capacity.
+	 *
+	 * @return This list's capacity.
+	 */
+	public int capacity() {
+		return this.elements.length;
+	}
+
+	@Override
+	public E get(int index) {
+		checkIndex(index);
+		return element(index);
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public boolean add(@Nullable E element) {
+		return addAll(Collections.singletonList(element));
+	}
+
+	@Override
+	public boolean addAll(@Nullable Collection<? extends E> collection) {
+		Object[] added = (collection != null ? collection.toArray() : new Object[0]);
+
+		if (added.length == 0) {
+			return false;
+		}
+
+		int capacity = this.elements.length;
+		int addedStart = Math.max(added.length - capacity, 0);
+		int addedCount = added.length - addedStart;
+		int evictCount = Math.max(this.size + addedCount - capacity, 0);
+
+		beginChange();
+		try {
+			if (evictCount > 0) {
+				List<E> evicted = new ArrayList<>(evictCount);
+
+				for (int evictIndex = 0; evictIndex < evictCount; evictIndex++) {
+					evicted.add(element(0));
+					this.elements[this.head] = null;
+					this.head = (this.head + 1) % capacity;
+				}
+				this.size -= evictCount;
+				nextRemove(0, evicted);
+			}
+
+			int from = this.size;
+
+			for (int addedIndex = addedStart; addedIndex < added.length; addedIndex++) {
+				this.elements[(this.head + this.size) % capacity] = added[addedIndex];
+				this.size++;
+			}
+			this.modCount++;
+			nextAdd(from, this.size);
+		} finally {
+			endChange();
+		}
+		return true;
+	}
+
+	@Override
+	public E set(int index, @Nullable E element) {
+		checkIndex(index);
+
+		E old = element(index);
+
+		this.elements[physicalIndex(index)] = element;
+		beginChange();
+		try {
+			nextSet(index, old);
+		} finally {
+			endChange();
+		}
+		return old;
+	}
+
+	@Override
+	public E remove(int index) {
+		checkIndex(index);
+
+		E removed = element(index);
+		int capacity = this.elements.length;
+
+		if (index == 0) {
+			this.elements[this.head] = null;
+			this.head = (this.head + 1) % capacity;
+		} else {
+			for (int shiftIndex = index; shiftIndex + 1 < this.size; shiftIndex++) {
+				this.elements[physicalIndex(shiftIndex)] = this.elements[physicalIndex(shiftIndex + 1)];
+			}
+			this.elements[physicalIndex(this.size - 1)] = null;
+		}
+		this.size--;
+		this.modCount++;
+		beginChange();
+		try {
+			nextRemove(index, removed);
+		} finally {
+			endChange();
+		}
+		return removed;
+	}
+
+	@Override
+	public void remove(int from, int to) {
+		if (from < 0 || from > to || to > this.size) {
+			throw new IndexOutOfBoundsException("Invalid range: " + from + "-" + to);
+		}
+		if (from == 0) {
+			int capacity = this.elements.length;
+			List<E> removed = new ArrayList<>(to);
+
+			for (int removeIndex = 0; removeIndex < to; removeIndex++) {
+				removed.add(element(0));
+				this.elements[this.head] = null;
+				this.head = (this.head + 1) % capacity;
+				this.size--;
+			}
+			this.modCount++;
+			beginChange();
+			try {
+				nextRemove(0, removed);
+			} finally {
+				endChange();
+			}
+		} else {
+			super.remove(from, to);
+		}
+	}
+
+	@Override
+	public void clear() {
+		if (this.size > 0) {
+			List<E> removed = new ArrayList<>(this);
+
+			Arrays.fill(this.elements, null);
+			this.head = 0;
+			this.size = 0;
+			this.modCount++;
+			beginChange();
+			try {
+				nextRemove(0, removed);
+			} finally {
+				endChange();
+			}
+		}
+	}
+
+	@Override
+	public boolean setAll(@Nullable Collection<? extends E> collection) {
+		beginChange();
+		try {
+			clear();
+			addAll(collection);
+		} finally {
+			endChange();
+		}
+		return true;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Invalid index: " + index);
+		}
+	}
+
+	private int physicalIndex(int index) {
+		return (this.head + index) % this.elements.length;
+	}
+
+	@SuppressWarnings("unchecked")
+	private E element(int index) {
+		return (E) this.elements[physicalIndex(index)];
+	}
+
+}
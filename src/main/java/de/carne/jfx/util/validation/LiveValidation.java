@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.util.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import de.carne.boot.logging.Log;
+import de.carne.jfx.application.PlatformHelper;
+import javafx.animation.PauseTransition;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.BooleanBinding;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.util.Duration;
+
+/**
+ * Live validation of an observable input value (e.g. a text field's text property).
+ * <p>
+ * Validation starts with the first input change (or an explicit {@link #revalidate()} call, e.g. to validate the
+ * initial input). Every input change restarts a debounce timer. When the timer elapses, the synchronous checks are run
+ * on the JavaFX application thread and afterwards the asynchronous checks (e.g. file system access) are run on a
+ * background executor. The result is reported via the {@link #statusProperty()} without creating any exceptions.
+ * Results of outdated inputs are discarded.
+ * <p>
+ * {@link ValidationException}s (and hence {@link ValidationAlerts}) are only involved when the input is finally
+ * committed via {@link #commit()}:
+ *
+ * <pre>
+ * LiveValidation&lt;String&gt; fileValidation = new LiveValidation&lt;&gt;(this.ctlFileInput.textProperty())
+ * 		.addAsyncCheck(ValidationCheck.path(EnumSet.of(PathCheck.REGULAR_FILE), message, null));
+ *
+ * this.ctlOkButton.disableProperty().bind(fileValidation.validProperty().not());
+ * fileValidation.revalidate();
+ * ...
+ * try {
+ * 	String file = fileValidation.commit();
+ * } catch (ValidationException e) {
+ * 	ValidationAlerts.error(e).showAndWait();
+ * }
+ * </pre>
+ * <p>
+ * Except for the asynchronous checks, all functions of this class must be called from the JavaFX application thread.
+ *
+ * @param <T> The input type to validate.
+ */
+public final class LiveValidation<T> {
+
+	private static final Log LOG = new Log();
+
+	/**
+	 * Default debounce delay (in ms).
+	 */
+	public static final long DEFAULT_DEBOUNCE_DELAY = 250;
+
+	/**
+	 * Default time (in ms) {@link #commit()} waits for a pending validation.
+	 */
+	public static final long DEFAULT_COMMIT_TIMEOUT = 1000;
+
+	private final ObservableValue<T> input;
+
+	private final List<ValidationCheck<T>> checks = new ArrayList<>();
+
+	private final List<ValidationCheck<T>> asyncChecks = new ArrayList<>();
+
+	private final ReadOnlyObjectWrapper<ValidationStatus> status = new ReadOnlyObjectWrapper<>(
+			ValidationStatus.PENDING);
+
+	private final BooleanBinding valid = Bindings.createBooleanBinding(() -> this.status.get().isValid(),
+			this.status);
+
+	private final PauseTransition debounceTimer = new PauseTransition(
+			Duration.millis(DEFAULT_DEBOUNCE_DELAY));
+
+	private final ChangeListener<T> inputListener = (observable, oldValue, newValue) -> onInputChanged();
+
+	private Executor executor = PathValidator.asyncExecutor();
+
+	private Duration commitTimeout = Duration.millis(DEFAULT_COMMIT_TIMEOUT);
+
+	@Nullable
+	private CompletableFuture<ValidationStatus> pendingValidation = null;
+
+	private long generation = 0;
+
+	/**
+	 * Construct {@code LiveValidation}.
+	 *
+	 * @param input The input value to validate.
+	 */
+	public LiveValidation(ObservableValue<T> input) {
+		this.input = input;
+		this.debounceTimer.setOnFinished(event -> validate());
+		this.input.addListener(this.inputListener);
+	}
+
+	/**
+	 * Add a synchronous check.
+	 * <p>
+	 * Synchronous checks are run on the JavaFX application thread and must therefore be cheap (e.g. no file system
+	 * access).
+	 *
+	 * @param check The check to add.
+	 * @return This validation for chaining.
+	 */
+	public LiveValidation<T> addCheck(ValidationCheck<T> check) {
+		this.checks.add(check);
+		return this;
+	}
+
+	/**
+	 * Add an asynchronous check.
+	 * <p>
+	 * Asynchronous checks are run on the background executor after all synchronous checks have passed.
+	 *
+	 * @param check The check to add.
+	 * @return This validation for chaining.
+	 */
+	public LiveValidation<T> addAsyncCheck(ValidationCheck<T> check) {
+		this.asyncChecks.add(check);
+		return this;
+	}
+
+	/**
+	 * Set the debounce delay (defaults to {@link #DEFAULT_DEBOUNCE_DELAY} ms).
+	 *
+	 * @param delay The delay to wait after the last input change before validating.
+	 * @return This validation for chaining.
+	 */
+	public LiveValidation<T> setDebounceDelay(Duration delay) {
+		this.debounceTimer.setDuration(delay);
+		return this;
+	}
+
+	/**
+	 * Set the maximum time {@link #commit()} waits for a pending validation to finish (defaults to
+	 * {@link #DEFAULT_COMMIT_TIMEOUT} ms).
+	 *
+	 * @param timeout The maximum time to wait.
+	 * @return This validation for chaining.
+	 */
+	public LiveValidation<T> setCommitTimeout(Duration timeout) {
+		this.commitTimeout = timeout;
+		return this;
+	}
+
+	/**
+	 * Set the {@link Executor} to run the asynchronous checks on.
+	 *
+	 * @param executor The {@link Executor} to use.
+	 * @return This validation for chaining.
+	 */
+	public LiveValidation<T> setExecutor(Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Get the current validation status.
+	 *
+	 * @return The current validation status.
+	 */
+	public ValidationStatus getStatus() {
+		return this.status.get();
+	}
+
+	/**
+	 * Get the validation status property.
+	 *
+	 * @return The validation status property.
+	 */
+	public ReadOnlyObjectProperty<ValidationStatus> statusProperty() {
+		return this.status.getReadOnlyProperty();
+	}
+
+	/**
+	 * Get the binding reporting whether the current input has been validated successfully.
+	 *
+	 * @return The binding reporting whether the current input has been validated successfully.
+	 */
+	public BooleanBinding validProperty() {
+		return this.valid;
+	}
+
+	/**
+	 * Validate the current input immediately (without waiting for the debounce delay).
+	 */
+	public void revalidate() {
+		this.debounceTimer.stop();
+		validate();
+	}
+
+	/**
+	 * Commit the current input.
+	 * <p>
+	 * If the current input's validation is still pending, the function waits for the asynchronous checks to finish
+	 * (at most for the commit timeout). If the input has already been validated, the existing result is used.
+	 *
+	 * @return The validated input.
+	 * @throws ValidationException if the input is invalid or its validation did not finish in time.
+	 * @see #setCommitTimeout(Duration)
+	 */
+	public T commit() throws ValidationException {
+		T value = this.input.getValue();
+
+		if (getStatus().getState() == ValidationStatus.State.PENDING && this.pendingValidation == null) {
+			// Debounce timer still running or input not yet validated at all
+			this.debounceTimer.stop();
+			validate();
+		}
+
+		ValidationStatus commitStatus = getStatus();
+		CompletableFuture<ValidationStatus> checkedPendingValidation = this.pendingValidation;
+
+		if (commitStatus.getState() == ValidationStatus.State.PENDING && checkedPendingValidation != null) {
+			try {
+				commitStatus = checkedPendingValidation.get((long) this.commitTimeout.toMillis(),
+						TimeUnit.MILLISECONDS);
+				this.status.set(commitStatus);
+			} catch (TimeoutException e) {
+				throw new ValidationException(ValidationAlertsI18N.strMessageValidationPending(), e);
+			} catch (ExecutionException e) {
+				// The validation finished, but failed
+				Throwable cause = e.getCause();
+				Throwable failure = (cause != null ? cause : e);
+
+				throw new ValidationException(failureMessage(failure), failure);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ValidationException(ValidationAlertsI18N.strMessageValidationPending(), e);
+			}
+		}
+
+		String message = commitStatus.getMessage();
+
+		if (message != null) {
+			throw new ValidationException(message);
+		}
+		return value;
+	}
+
+	/**
+	 * Stop validating.
+	 * <p>
+	 * Input changes are no longer tracked and pending validations are discarded.
+	 */
+	public void dispose() {
+		this.input.removeListener(this.inputListener);
+		this.debounceTimer.stop();
+		cancelPendingValidation();
+	}
+
+	private void onInputChanged() {
+		cancelPendingValidation();
+		this.status.set(ValidationStatus.PENDING);
+		if (this.debounceTimer.getDuration().greaterThan(Duration.ZERO)) {
+			this.debounceTimer.playFromStart();
+		} else {
+			validate();
+		}
+	}
+
+	private void validate() {
+		cancelPendingValidation();
+
+		T value = this.input.getValue();
+		ValidationStatus syncStatus = runChecks(this.checks, value);
+
+		if (!syncStatus.isValid() || this.asyncChecks.isEmpty()) {
+			this.status.set(syncStatus);
+		} else {
+			long validationGeneration = this.generation;
+			List<ValidationCheck<T>> checksSnapshot = new ArrayList<>(this.asyncChecks);
+			CompletableFuture<ValidationStatus> validation;
+
+			try {
+				validation = CompletableFuture.supplyAsync(() -> runChecks(checksSnapshot, value), this.executor);
+			} catch (RejectedExecutionException e) {
+				validation = new CompletableFuture<>();
+				validation.completeExceptionally(e);
+			}
+
+			this.status.set(ValidationStatus.PENDING);
+			this.pendingValidation = validation;
+			validation.whenComplete((asyncStatus, exception) -> PlatformHelper.runLaterAsync(() -> {
+				if (validationGeneration == this.generation) {
+					this.pendingValidation = null;
+					if (asyncStatus != null) {
+						this.status.set(asyncStatus);
+					} else if (exception != null) {
+						LOG.warning(exception, "Asynchronous validation failed");
+						this.status.set(ValidationStatus.invalid(failureMessage(exception)));
+					}
+				}
+			}));
+		}
+	}
+
+	private void cancelPendingValidation() {
+		this.generation++;
+
+		CompletableFuture<ValidationStatus> checkedPendingValidation = this.pendingValidation;
+
+		if (checkedPendingValidation != null) {
+			checkedPendingValidation.cancel(false);
+			this.pendingValidation = null;
+		}
+	}
+
+	private static String failureMessage(Throwable failure) {
+		String message = failure.getLocalizedMessage();
+
+		return (message != null ? message : failure.toString());
+	}
+
+	private ValidationStatus runChecks(List<ValidationCheck<T>> checksToRun, @Nullable T value) {
+		ValidationStatus checkStatus = ValidationStatus.VALID;
+
+		for (ValidationCheck<T> check : checksToRun) {
+			String message = check.check(value);
+
+			if (message != null) {
+				checkStatus = ValidationStatus.invalid(message);
+				break;
+			}
+		}
+		return checkStatus;
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.util.validation;
+
+import java.nio.file.AccessMode;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The checks {@link PathValidator} can apply to an existing path.
+ *
+ * @see PathValidator#isPath(String, java.util.Set, MessageFormatter)
+ */
+public enum PathCheck {
+
+	/**
+	 * Path must be a regular file.
+	 */
+	REGULAR_FILE(null),
+
+	/**
+	 * Path must be a directory.
+	 */
+	DIRECTORY(null),
+
+	/**
+	 * Path must be readable.
+	 */
+	READABLE(AccessMode.READ),
+
+	/**
+	 * Path must be writable.
+	 */
+	WRITABLE(AccessMode.WRITE);
+
+	@Nullable
+	private final AccessMode accessMode;
+
+	private PathCheck(@Nullable AccessMode accessMode) {
+		this.accessMode = accessMode;
+	}
+
+	@Nullable
+	AccessMode accessMode() {
+		return this.accessMode;
+	}
+
+}
@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.util.validation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.AccessMode;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import de.carne.boot.Exceptions;
+import de.carne.boot.logging.Log;
+
+/**
+ * Validation context caching the file system information used by {@link PathValidator}.
+ * <p>
+ * Repeated validation of the same paths (e.g. while the user is typing a path) is served from the cache. Cache
+ * entries expire after a short time and the number of cached paths is bounded. Paths below a directory already known
+ * to be missing are rejected without any file system access.
+ * <p>
+ * Optionally the parent directories of the cached paths are watched via a {@link WatchService} to invalidate
+ * modified entries immediately. As not all file systems (e.g. network mounts) report changes, the expiry time still
+ * applies in this case.
+ * <p>
+ * All functions of this class are thread-safe. File system calls are performed without holding the context's lock;
+ * hence a blocking call only delays the validation of the affected path.
+ *
+ * @see PathValidator#isPath(String, Set, MessageFormatter, PathValidationContext)
+ * @see PathValidator#isPathAsync(String, Set, MessageFormatter, PathValidationContext)
+ */
+public final class PathValidationContext implements Closeable {
+
+	private static final Log LOG = new Log();
+
+	/**
+	 * Default time (in ms) after which a cache entry expires.
+	 */
+	public static final long DEFAULT_TTL = 2000;
+
+	/**
+	 * Default maximum number of cached paths.
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 256;
+
+	private final long ttlNanos;
+
+	private final int maxEntries;
+
+	private final Map<Path, CacheEntry> entries;
+
+	private final Map<Path, WatchKey> watchKeys;
+
+	@Nullable
+	private WatchService watchService = null;
+
+	/**
+	 * Construct {@code PathValidationContext} using the default expiry time and size.
+	 */
+	public PathValidationContext() {
+		this(DEFAULT_TTL, TimeUnit.MILLISECONDS, DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * Construct {@code PathValidationContext}.
+	 *
+	 * @param ttl The time after which a cache entry expires.
+	 * @param unit The time unit of the expiry time.
+	 * @param maxEntries The maximum number of cached paths.
+	 */
+	public PathValidationContext(long ttl, TimeUnit unit, int maxEntries) {
+		if (ttl < 0) {
+			throw new IllegalArgumentException("Invalid TTL: " + ttl);
+		}
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("Invalid maximum number of entries: " + maxEntries);
+		}
+		this.ttlNanos = unit.toNanos(ttl);
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<Path, CacheEntry>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.@Nullable Entry<Path, CacheEntry> eldest) {
+				return size() > PathValidationContext.this.maxEntries;
+			}
+
+		};
+		this.watchKeys = new LinkedHashMap<Path, WatchKey>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.@Nullable Entry<Path, WatchKey> eldest) {
+				boolean remove = size() > PathValidationContext.this.maxEntries;
+
+				if (remove && eldest != null) {
+					eldest.getValue().cancel();
+				}
+				return remove;
+			}
+
+		};
+	}
+
+	/**
+	 * Enable or disable watching of the cached paths' parent directories (disabled by default).
+	 *
+	 * @param enabled Whether to enable watching or not.
+	 * @return This context for chaining.
+	 */
+	public synchronized PathValidationContext setWatching(boolean enabled) {
+		WatchService checkedWatchService = this.watchService;
+
+		if (enabled && checkedWatchService == null) {
+			try {
+				this.watchService = FileSystems.getDefault().newWatchService();
+			} catch (IOException | UnsupportedOperationException e) {
+				LOG.warning(e, "Failed to create watch service; relying on cache expiry only");
+			}
+		} else if (!enabled && checkedWatchService != null) {
+			closeWatchService(checkedWatchService);
+		}
+		return this;
+	}
+
+	/**
+	 * Discard all cached information.
+	 */
+	public synchronized void invalidate() {
+		this.entries.clear();
+	}
+
+	/**
+	 * Discard all cached information for a path and the paths below it.
+	 *
+	 * @param path The path to invalidate.
+	 */
+	public synchronized void invalidate(Path path) {
+		invalidateTree(path.toAbsolutePath());
+	}
+
+	/**
+	 * Get the number of currently cached paths.
+	 *
+	 * @return The number of currently cached paths.
+	 */
+	public synchronized int size() {
+		return this.entries.size();
+	}
+
+	@Override
+	public synchronized void close() {
+		this.entries.clear();
+
+		WatchService checkedWatchService = this.watchService;
+
+		if (checkedWatchService != null) {
+			closeWatchService(checkedWatchService);
+		}
+	}
+
+	BasicFileAttributes readAttributes(Path path) throws IOException {
+		CacheEntry entry;
+		BasicFileAttributes attributes;
+		IOException attributesException;
+
+		synchronized (this) {
+			entry = entry(path);
+			attributes = entry.attributes;
+			attributesException = entry.attributesException;
+		}
+		if (attributes == null && attributesException == null) {
+			// File system calls may block (e.g. on a stalled network mount); hence they are performed without holding
+			// the lock and only the result is stored under the lock
+			try {
+				attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			} catch (IOException e) {
+				attributesException = e;
+			}
+			synchronized (this) {
+				entry.attributes = attributes;
+				entry.attributesException = attributesException;
+			}
+			watchParent(path);
+		}
+		if (attributesException != null) {
+			throw attributesException;
+		}
+		return Objects.requireNonNull(attributes);
+	}
+
+	void checkAccess(Path path, AccessMode... modes) throws IOException {
+		Set<AccessMode> modeSet = EnumSet.noneOf(AccessMode.class);
+
+		for (AccessMode mode : modes) {
+			modeSet.add(mode);
+		}
+
+		CacheEntry entry;
+		IOException accessException;
+		Access access;
+
+		synchronized (this) {
+			entry = entry(path);
+			accessException = entry.attributesException;
+			access = entry.accessResults.get(modeSet);
+		}
+		if (accessException == null) {
+			if (access == null) {
+				access = new Access();
+				try {
+					path.getFileSystem().provider().checkAccess(path, modes);
+				} catch (IOException e) {
+					access.exception = e;
+				}
+				synchronized (this) {
+					entry.accessResults.put(modeSet, access);
+				}
+				watchParent(path);
+			}
+			accessException = access.exception;
+		}
+		if (accessException != null) {
+			throw accessException;
+		}
+	}
+
+	private CacheEntry entry(Path path) {
+		processWatchEvents();
+
+		Path key = path.toAbsolutePath();
+		long now = System.nanoTime();
+		CacheEntry entry = this.entries.get(key);
+
+		if (entry == null || now - entry.created > this.ttlNanos) {
+			entry = new CacheEntry(now);
+			entry.attributesException = missingAncestorException(key, now);
+			this.entries.put(key, entry);
+		}
+		return entry;
+	}
+
+	@Nullable
+	private IOException missingAncestorException(Path path, long now) {
+		IOException exception = null;
+		Path ancestor = path.getParent();
+
+		while (exception == null && ancestor != null) {
+			CacheEntry ancestorEntry = this.entries.get(ancestor);
+
+			if (ancestorEntry != null && now - ancestorEntry.created <= this.ttlNanos) {
+				BasicFileAttributes ancestorAttributes = ancestorEntry.attributes;
+
+				if (ancestorEntry.attributesException instanceof NoSuchFileException) {
+					exception = new NoSuchFileException(path.toString());
+				} else if (ancestorAttributes != null && !ancestorAttributes.isDirectory()) {
+					exception = new NotDirectoryException(ancestor.toString());
+				}
+			}
+			ancestor = ancestor.getParent();
+		}
+		return exception;
+	}
+
+	private void watchParent(Path path) {
+		Path parent = path.toAbsolutePath().getParent();
+		WatchService checkedWatchService;
+
+		synchronized (this) {
+			checkedWatchService = this.watchService;
+			if (parent == null || this.watchKeys.containsKey(parent)) {
+				checkedWatchService = null;
+			}
+		}
+		if (checkedWatchService != null && parent != null) {
+			try {
+				// Registering may access the file system; hence it is performed without holding the lock
+				WatchKey watchKey = parent.register(checkedWatchService, StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+				synchronized (this) {
+					if (this.watchService == checkedWatchService) {
+						this.watchKeys.put(parent, watchKey);
+					}
+				}
+			} catch (IOException | UnsupportedOperationException | ClosedWatchServiceException e) {
+				// Parent directory may not exist (yet) or does not support watching; rely on expiry
+				Exceptions.ignore(e);
+			}
+		}
+	}
+
+	private void processWatchEvents() {
+		WatchService checkedWatchService = this.watchService;
+
+		if (checkedWatchService != null) {
+			try {
+				WatchKey watchKey;
+
+				while ((watchKey = checkedWatchService.poll()) != null) {
+					Path directory = (Path) watchKey.watchable();
+
+					for (WatchEvent<?> event : watchKey.pollEvents()) {
+						Object context = event.context();
+
+						if (event.kind() != StandardWatchEventKinds.OVERFLOW && context instanceof Path) {
+							invalidateTree(directory.resolve((Path) context));
+							this.entries.remove(directory);
+						} else {
+							invalidateTree(directory);
+						}
+					}
+					if (!watchKey.reset()) {
+						this.watchKeys.remove(directory);
+					}
+				}
+			} catch (ClosedWatchServiceException e) {
+				Exceptions.ignore(e);
+			}
+		}
+	}
+
+	private void invalidateTree(Path path) {
+		Iterator<Path> keyIterator = this.entries.keySet().iterator();
+
+		while (keyIterator.hasNext()) {
+			if (keyIterator.next().startsWith(path)) {
+				keyIterator.remove();
+			}
+		}
+	}
+
+	private void closeWatchService(WatchService checkedWatchService) {
+		this.watchService = null;
+		this.watchKeys.clear();
+		try {
+			checkedWatchService.close();
+		} catch (IOException e) {
+			LOG.warning(e, "Failed to close watch service");
+		}
+	}
+
+	private static final class CacheEntry {
+
+		final long created;
+
+		@Nullable
+		BasicFileAttributes attributes = null;
+
+		@Nullable
+		IOException attributesException = null;
+
+		final Map<Set<AccessMode>, Access> accessResults = new HashMap<>();
+
+		CacheEntry(long created) {
+			this.created = created;
+		}
+
+	}
+
+	private static final class Access {
+
+		@Nullable
+		IOException exception = null;
+
+		Access() {
+			// Nothing to do here
+		}
+
+	}
+
+}
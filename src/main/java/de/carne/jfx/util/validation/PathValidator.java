@@ -16,10 +16,31 @@
  */
 package de.carne.jfx.util.validation;
 
+import java.io.IOException;
+import java.nio.file.AccessMode;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import de.carne.boot.Exceptions;
+import de.carne.util.Lazy;
 
 /**
  * This class provides validation function for {@link Path} objects and the like.
@@ -30,6 +51,41 @@ public final class PathValidator {
 		// Make sure this class is not instantiated from outside
 	}
 
+	/**
+	 * Default timeout (in ms) for asynchronous path validation.
+	 */
+	public static final long DEFAULT_ASYNC_TIMEOUT = 5000;
+
+	private static final int ASYNC_THREAD_COUNT = 4;
+
+	private static final int ASYNC_QUEUE_SIZE = 64;
+
+	private static final long ASYNC_THREAD_KEEP_ALIVE = 30;
+
+	// Threads blocked by a stalled file system call cannot be reclaimed; hence the pool and its queue are bounded
+	private static final Lazy<ThreadPoolExecutor> ASYNC_EXECUTOR = new Lazy<>(() -> {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(ASYNC_THREAD_COUNT, ASYNC_THREAD_COUNT,
+				ASYNC_THREAD_KEEP_ALIVE, TimeUnit.SECONDS, new ArrayBlockingQueue<>(ASYNC_QUEUE_SIZE),
+				PathValidator::newDaemonThread);
+
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	});
+
+	private static final Lazy<ScheduledExecutorService> TIMEOUT_SCHEDULER = new Lazy<>(() -> {
+		ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, PathValidator::newDaemonThread);
+
+		scheduler.setRemoveOnCancelPolicy(true);
+		return scheduler;
+	});
+
+	private static Thread newDaemonThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, PathValidator.class.getSimpleName());
+
+		thread.setDaemon(true);
+		return thread;
+	}
+
 	/**
 	 * Make sure input is a valid path.
 	 *
@@ -79,12 +135,7 @@ public final class PathValidator {
 	 * @see Files#isRegularFile(Path, java.nio.file.LinkOption...)
 	 */
 	public static Path isRegularFilePath(String input, MessageFormatter message) throws ValidationException {
-		Path inputPath = isPath(input, message);
-
-		if (!Files.isRegularFile(inputPath)) {
-			throw new ValidationException(message.format(input));
-		}
-		return inputPath;
+		return isPath(input, EnumSet.of(PathCheck.REGULAR_FILE), message);
 	}
 
 	/**
@@ -94,15 +145,10 @@ public final class PathValidator {
 	 * @param message The exception message to use if the input is invalid.
 	 * @return The validated {@link Path} object.
 	 * @throws ValidationException if the input is invalid.
-	 * @see Files#isReadable(Path)
+	 * @see Files#isDirectory(Path, java.nio.file.LinkOption...)
 	 */
 	public static Path isDirectoryPath(String input, MessageFormatter message) throws ValidationException {
-		Path inputPath = isPath(input, message);
-
-		if (!Files.isDirectory(inputPath)) {
-			throw new ValidationException(message.format(input));
-		}
-		return inputPath;
+		return isPath(input, EnumSet.of(PathCheck.DIRECTORY), message);
 	}
 
 	/**
@@ -115,30 +161,211 @@ public final class PathValidator {
 	 * @see Files#isReadable(Path)
 	 */
 	public static Path isReadablePath(String input, MessageFormatter message) throws ValidationException {
+		return isPath(input, EnumSet.of(PathCheck.READABLE), message);
+	}
+
+	/**
+	 * Make sure input is a writable path.
+	 *
+	 * @param input The input to validate.
+	 * @param message The exception message to use if the input is invalid.
+	 * @return The validated {@link Path} object.
+	 * @throws ValidationException if the input is invalid.
+	 * @see Files#isWritable(Path)
+	 */
+	public static Path isWritablePath(String input, MessageFormatter message) throws ValidationException {
+		return isPath(input, EnumSet.of(PathCheck.WRITABLE), message);
+	}
+
+	/**
+	 * Make sure input is an existing path passing a set of checks.
+	 * <p>
+	 * All checks are performed with at most two file system calls (one attribute read for the type checks and one
+	 * access check for all access modes) regardless of the number of checks.
+	 *
+	 * @param input The input to validate.
+	 * @param checks The checks to apply. An empty set only checks whether the input is a valid path.
+	 * @param message The exception message to use if the input is invalid.
+	 * @return The validated {@link Path} object.
+	 * @throws ValidationException if the input is invalid.
+	 */
+	public static Path isPath(String input, Set<PathCheck> checks, MessageFormatter message)
+			throws ValidationException {
 		Path inputPath = isPath(input, message);
 
-		if (!Files.isReadable(inputPath)) {
+		if (!checks.isEmpty() && !checkPath(inputPath, checks, null)) {
 			throw new ValidationException(message.format(input));
 		}
 		return inputPath;
 	}
 
 	/**
-	 * Make sure input is a writable path.
+	 * Make sure input is an existing path passing a set of checks using cached file system information.
 	 *
 	 * @param input The input to validate.
+	 * @param checks The checks to apply. An empty set only checks whether the input is a valid path.
 	 * @param message The exception message to use if the input is invalid.
+	 * @param context The {@link PathValidationContext} to use for caching.
 	 * @return The validated {@link Path} object.
 	 * @throws ValidationException if the input is invalid.
-	 * @see Files#isWritable(Path)
 	 */
-	public static Path isWritablePath(String input, MessageFormatter message) throws ValidationException {
+	public static Path isPath(String input, Set<PathCheck> checks, MessageFormatter message,
+			PathValidationContext context) throws ValidationException {
 		Path inputPath = isPath(input, message);
 
-		if (!Files.isWritable(inputPath)) {
+		if (!checks.isEmpty() && !checkPath(inputPath, checks, context)) {
 			throw new ValidationException(message.format(input));
 		}
 		return inputPath;
 	}
 
+	/**
+	 * Make sure input is an existing path passing a set of checks without blocking the calling thread.
+	 * <p>
+	 * The checks are executed by a small, bounded pool of background threads and fail with a
+	 * {@link ValidationException} after {@link #DEFAULT_ASYNC_TIMEOUT} ms or if the pool is exhausted (e.g. due to a
+	 * stalled network mount).
+	 *
+	 * @param input The input to validate.
+	 * @param checks The checks to apply.
+	 * @param message The exception message to use if the input is invalid.
+	 * @return The {@link CompletableFuture} providing the validated {@link Path} object.
+	 * @see #isPathAsync(String, Set, MessageFormatter, Executor, long, TimeUnit)
+	 */
+	public static CompletableFuture<Path> isPathAsync(String input, Set<PathCheck> checks, MessageFormatter message) {
+		return isPathAsync(input, checks, message, ASYNC_EXECUTOR.get(), DEFAULT_ASYNC_TIMEOUT,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Make sure input is an existing path passing a set of checks using cached file system information without
+	 * blocking the calling thread.
+	 *
+	 * @param input The input to validate.
+	 * @param checks The checks to apply.
+	 * @param message The exception message to use if the input is invalid.
+	 * @param context The {@link PathValidationContext} to use for caching.
+	 * @return The {@link CompletableFuture} providing the validated {@link Path} object.
+	 * @see #isPathAsync(String, Set, MessageFormatter, Executor, long, TimeUnit)
+	 */
+	public static CompletableFuture<Path> isPathAsync(String input, Set<PathCheck> checks, MessageFormatter message,
+			PathValidationContext context) {
+		return isPathAsync(input, checks, message, context, ASYNC_EXECUTOR.get(), DEFAULT_ASYNC_TIMEOUT,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Make sure input is an existing path passing a set of checks without blocking the calling thread.
+	 * <p>
+	 * The returned future completes with the validated {@link Path} object or exceptionally with a
+	 * {@link ValidationException} if the input is invalid or the checks did not finish within the given timeout.
+	 * Cancelling the future discards the check's result. A check which has not yet been started is skipped; a check
+	 * already blocked in a file system call keeps the executing thread busy until the call returns.
+	 *
+	 * @param input The input to validate.
+	 * @param checks The checks to apply.
+	 * @param message The exception message to use if the input is invalid.
+	 * @param executor The {@link Executor} to run the checks on.
+	 * @param timeout The time to wait for the checks to finish.
+	 * @param unit The time unit of the timeout.
+	 * @return The {@link CompletableFuture} providing the validated {@link Path} object.
+	 */
+	public static CompletableFuture<Path> isPathAsync(String input, Set<PathCheck> checks, MessageFormatter message,
+			Executor executor, long timeout, TimeUnit unit) {
+		return isPathAsync(input, checks, message, null, executor, timeout, unit);
+	}
+
+	private static CompletableFuture<Path> isPathAsync(String input, Set<PathCheck> checks, MessageFormatter message,
+			@Nullable PathValidationContext context, Executor executor, long timeout, TimeUnit unit) {
+		CompletableFuture<Path> future = new CompletableFuture<>();
+
+		try {
+			Path inputPath = isPath(input, message);
+			Set<PathCheck> checksCopy = (checks.isEmpty() ? EnumSet.noneOf(PathCheck.class) : EnumSet.copyOf(checks));
+			ScheduledFuture<?> timeoutFuture = TIMEOUT_SCHEDULER.get().schedule(
+					() -> future.completeExceptionally(
+							new ValidationException(message.format(input), new TimeoutException(input))),
+					timeout, unit);
+
+			Runnable check = () -> {
+				if (!future.isDone()) {
+					try {
+						if (checksCopy.isEmpty() || checkPath(inputPath, checksCopy, context)) {
+							future.complete(inputPath);
+						} else {
+							future.completeExceptionally(new ValidationException(message.format(input)));
+						}
+					} catch (RuntimeException e) {
+						future.completeExceptionally(e);
+					}
+				}
+			};
+
+			future.whenComplete((path, exception) -> {
+				timeoutFuture.cancel(false);
+				// Free the queue slot of a timed out or cancelled check which has not yet been started
+				if (executor instanceof ThreadPoolExecutor) {
+					((ThreadPoolExecutor) executor).remove(check);
+				}
+			});
+			try {
+				executor.execute(check);
+			} catch (RejectedExecutionException e) {
+				// All background threads are busy (e.g. blocked by a stalled mount) and the queue is full
+				future.completeExceptionally(new ValidationException(message.format(input), e));
+			}
+		} catch (ValidationException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	static Executor asyncExecutor() {
+		return ASYNC_EXECUTOR.get();
+	}
+
+	static boolean testPath(String input, Set<PathCheck> checks, @Nullable PathValidationContext context) {
+		boolean valid;
+
+		try {
+			valid = checkPath(Paths.get(input), checks, context);
+		} catch (InvalidPathException e) {
+			Exceptions.ignore(e);
+			valid = false;
+		}
+		return valid;
+	}
+
+	private static boolean checkPath(Path path, Set<PathCheck> checks, @Nullable PathValidationContext context) {
+		boolean valid = true;
+
+		try {
+			boolean regularFileCheck = checks.contains(PathCheck.REGULAR_FILE);
+			boolean directoryCheck = checks.contains(PathCheck.DIRECTORY);
+
+			if (regularFileCheck || directoryCheck) {
+				BasicFileAttributes attributes = (context != null ? context.readAttributes(path)
+						: Files.readAttributes(path, BasicFileAttributes.class));
+
+				valid = (!regularFileCheck || attributes.isRegularFile())
+						&& (!directoryCheck || attributes.isDirectory());
+			}
+
+			AccessMode[] accessModes = checks.stream().map(PathCheck::accessMode).filter(Objects::nonNull)
+					.toArray(AccessMode[]::new);
+
+			if (valid && accessModes.length > 0) {
+				if (context != null) {
+					context.checkAccess(path, accessModes);
+				} else {
+					path.getFileSystem().provider().checkAccess(path, accessModes);
+				}
+			}
+		} catch (IOException | SecurityException e) {
+			Exceptions.ignore(e);
+			valid = false;
+		}
+		return valid;
+	}
+
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.util.validation;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Functional interface for exception free input validation.
+ * <p>
+ * In contrast to the functions of {@link InputValidator} and {@link PathValidator} a failed check is reported by its
+ * message and not via a {@link ValidationException}. This makes the checks cheap enough to run on every input change.
+ *
+ * @param <T> The input type to check.
+ * @see LiveValidation
+ */
+@FunctionalInterface
+public interface ValidationCheck<T> {
+
+	/**
+	 * Check input.
+	 *
+	 * @param input The input to check.
+	 * @return {@code null} if the input is valid or the validation message.
+	 */
+	@Nullable
+	String check(@Nullable T input);
+
+	/**
+	 * Get a check making sure input is not an empty {@link String}.
+	 *
+	 * @param message The message to use if the input is invalid.
+	 * @return The check.
+	 * @see InputValidator#notEmpty(String, MessageFormatter)
+	 */
+	static ValidationCheck<String> notEmpty(MessageFormatter message) {
+		return input -> (input == null || input.length() == 0 ? message.format() : null);
+	}
+
+	/**
+	 * Get a check making sure input matches a given {@link Pattern}.
+	 *
+	 * @param pattern The pattern to check the input against.
+	 * @param message The message to use if the input is invalid.
+	 * @return The check.
+	 * @see InputValidator#matches(String, Pattern, MessageFormatter)
+	 */
+	static ValidationCheck<String> matches(Pattern pattern, MessageFormatter message) {
+		return input -> (input == null || !pattern.matcher(input).matches() ? message.format(String.valueOf(input))
+				: null);
+	}
+
+	/**
+	 * Get a check making sure input is an existing path passing a set of checks.
+	 * <p>
+	 * The check accesses the file system and should be run asynchronously.
+	 *
+	 * @param checks The path checks to apply.
+	 * @param message The message to use if the input is invalid.
+	 * @param context The optional {@link PathValidationContext} to use for caching (may be {@code null}).
+	 * @return The check.
+	 * @see PathValidator#isPath(String, Set, MessageFormatter)
+	 * @see LiveValidation#addAsyncCheck(ValidationCheck)
+	 */
+	static ValidationCheck<String> path(Set<PathCheck> checks, MessageFormatter message,
+			@Nullable PathValidationContext context) {
+		return input -> (input == null || !PathValidator.testPath(input, checks, context)
+				? message.format(String.valueOf(input))
+				: null);
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.util.validation;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Immutable validation status as reported by {@link LiveValidation}.
+ */
+public final class ValidationStatus {
+
+	/**
+	 * The possible validation states.
+	 */
+	public enum State {
+
+		/**
+		 * Input has been validated successfully.
+		 */
+		VALID,
+
+		/**
+		 * Input has been validated and is invalid.
+		 */
+		INVALID,
+
+		/**
+		 * Input validation is in progress.
+		 */
+		PENDING
+
+	}
+
+	/**
+	 * Status indicating valid input.
+	 */
+	public static final ValidationStatus VALID = new ValidationStatus(State.VALID, null);
+
+	/**
+	 * Status indicating validation in progress.
+	 */
+	public static final ValidationStatus PENDING = new ValidationStatus(State.PENDING, null);
+
+	private final State state;
+
+	@Nullable
+	private final String message;
+
+	private ValidationStatus(State state, @Nullable String message) {
+		this.state = state;
+		this.message = message;
+	}
+
+	/**
+	 * Get the status indicating invalid input.
+	 *
+	 * @param message The validation message.
+	 * @return The status indicating invalid input.
+	 */
+	public static ValidationStatus invalid(String message) {
+		return new ValidationStatus(State.INVALID, message);
+	}
+
+	/**
+	 * Get the validation state.
+	 *
+	 * @return The validation state.
+	 */
+	public State getState() {
+		return this.state;
+	}
+
+	/**
+	 * Check whether this status indicates valid input.
+	 *
+	 * @return {@code true} if this status indicates valid input.
+	 */
+	public boolean isValid() {
+		return this.state == State.VALID;
+	}
+
+	/**
+	 * Get the validation message.
+	 *
+	 * @return The validation message (or {@code null} if the input is not invalid).
+	 */
+	@Nullable
+	public String getMessage() {
+		return this.message;
+	}
+
+	@Override
+	public String toString() {
+		String checkedMessage = this.message;
+
+		return (checkedMessage != null ? this.state + ": " + checkedMessage : this.state.toString());
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.carne.jfx.test.HeadlessToolkit;
+import javafx.application.Platform;
+
+/**
+ * Test {@link CoalescingScheduler} class.
+ */
+public class CoalescingSchedulerTest {
+
+	private static final long TIMEOUT = 10;
+
+	/**
+	 * Setup JavaFX toolkit.
+	 *
+	 * @throws Exception if an error occurs.
+	 */
+	@BeforeClass
+	public static void setUpToolkit() throws Exception {
+		HeadlessToolkit.setUp();
+	}
+
+	/**
+	 * Test that only the latest value per key is applied.
+	 *
+	 * @throws Exception if an error occurs.
+	 */
+	@Test
+	public void testCoalescing() throws Exception {
+		CoalescingScheduler scheduler = new CoalescingScheduler();
+		List<String> applied = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch blocked = blockFxThread();
+
+		for (int value = 1; value <= 100; value++) {
+			scheduler.submit("a", Integer.valueOf(value), a -> applied.add("a" + a));
+		}
+		scheduler.submit("b", "x", b -> applied.add("b" + b));
+		Assert.assertEquals(2, scheduler.pendingCount());
+		blocked.countDown();
+		awaitFlush(scheduler);
+		Collections.sort(applied);
+		Assert.assertEquals(Arrays.asList("a100", "bx"), applied);
+		Assert.assertEquals(0, scheduler.pendingCount());
+	}
+
+	/**
+	 * Test that cancelled updates are discarded and failing updates do not affect other updates.
+	 *
+	 * @throws Exception if an error occurs.
+	 */
+	@Test
+	public void testCancelAndFailure() throws Exception {
+		CoalescingScheduler scheduler = new CoalescingScheduler();
+		List<String> applied = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch blocked = blockFxThread();
+
+		scheduler.submit("cancelled", "c", c -> applied.add(c));
+		scheduler.submit("failing", "f", f -> {
+			throw new IllegalStateException(f);
+		});
+		scheduler.submit("applied", "a", a -> applied.add(a));
+		scheduler.cancel("cancelled");
+		blocked.countDown();
+		awaitFlush(scheduler);
+		Assert.assertEquals(Arrays.asList("a"), applied);
+	}
+
+	/**
+	 * Test that updates submitted after a flush are applied, too.
+	 *
+	 * @throws Exception if an error occurs.
+	 */
+	@Test
+	public void testResubmit() throws Exception {
+		CoalescingScheduler scheduler = new CoalescingScheduler();
+
+		for (int round = 0; round < 10; round++) {
+			CompletableFuture<Boolean> applied = new CompletableFuture<>();
+
+			scheduler.submit("key", Boolean.TRUE, value -> {
+				Assert.assertTrue(Platform.isFxApplicationThread());
+				applied.complete(value);
+			});
+			Assert.assertEquals(Boolean.TRUE, applied.get(TIMEOUT, TimeUnit.SECONDS));
+		}
+	}
+
+	private static CountDownLatch blockFxThread() {
+		CountDownLatch blocked = new CountDownLatch(1);
+
+		Platform.runLater(() -> {
+			try {
+				blocked.await(TIMEOUT, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		return blocked;
+	}
+
+	private static void awaitFlush(CoalescingScheduler scheduler) throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT);
+
+		while (scheduler.pendingCount() > 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		// Make sure a concurrently running flush has finished
+		PlatformHelper.runLater(() -> {
+			// Nothing to do here
+		});
+	}
+
+}
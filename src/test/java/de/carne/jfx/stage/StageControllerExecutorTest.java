@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.stage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test {@link StageController} background executor handling.
+ */
+public class StageControllerExecutorTest {
+
+	private static final long TIMEOUT = 10;
+
+	private static final class TestStageController extends StageController {
+
+		TestStageController() {
+			// Nothing to do here
+		}
+
+		void execute(Runnable command) {
+			getBackgroundExecutor().execute(command);
+		}
+
+		Executor executor() {
+			return getBackgroundExecutor();
+		}
+
+	}
+
+	/**
+	 * Restore the default policy.
+	 */
+	@After
+	public void restoreDefaultPolicy() {
+		StageController.setExecutorPolicy(ExecutorPolicy.SINGLE_THREAD, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Switch the policy after a stage has already executed a background task.
+	 *
+	 * @throws Exception if an error occurs.
+	 */
+	@Test
+	public void testPolicySwitchAfterTask() throws Exception {
+		TestStageController stage = new TestStageController();
+
+		StageController.setExecutorPolicy(ExecutorPolicy.SERIAL_PER_STAGE, 2);
+		assertTaskExecuted(stage);
+		StageController.setExecutorPolicy(ExecutorPolicy.WORK_STEALING, 2);
+		assertTaskExecuted(stage);
+		StageController.setExecutorPolicy(ExecutorPolicy.SINGLE_THREAD, 1);
+		Assert.assertSame(StageController.getExecutorService(), stage.executor());
+		assertTaskExecuted(stage);
+
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+		try {
+			StageController.setExecutorService(executorService, true);
+			assertTaskExecuted(stage);
+		} finally {
+			executorService.shutdown();
+		}
+	}
+
+	/**
+	 * Switch the executor while a stage still has pending serial background tasks.
+	 *
+	 * @throws Exception if an error occurs.
+	 */
+	@Test
+	public void testPolicySwitchWithPendingTasks() throws Exception {
+		TestStageController stage = new TestStageController();
+		CountDownLatch blocked = new CountDownLatch(1);
+		List<String> executed = Collections.synchronizedList(new ArrayList<>());
+		CompletableFuture<Boolean> finished = new CompletableFuture<>();
+
+		StageController.setExecutorPolicy(ExecutorPolicy.SERIAL_PER_STAGE, 2);
+		stage.execute(() -> {
+			try {
+				blocked.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			executed.add("1");
+		});
+		stage.execute(() -> executed.add("2"));
+		StageController.setExecutorPolicy(ExecutorPolicy.SERIAL_PER_STAGE, 4);
+		stage.execute(() -> {
+			executed.add("3");
+			finished.complete(Boolean.TRUE);
+		});
+		Thread.sleep(100);
+		Assert.assertEquals(Collections.emptyList(), executed);
+		blocked.countDown();
+		Assert.assertEquals(Boolean.TRUE, finished.get(TIMEOUT, TimeUnit.SECONDS));
+		Assert.assertEquals(Arrays.asList("1", "2", "3"), executed);
+	}
+
+	/**
+	 * Make sure an application provided executor service is not shut down on policy changes.
+	 *
+	 * @throws Exception if an error occurs.
+	 */
+	@Test
+	public void testApplicationExecutorService() throws Exception {
+		TestStageController stage = new TestStageController();
+		ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+		try {
+			StageController.setExecutorService(executorService, false);
+			assertTaskExecuted(stage);
+			StageController.setExecutorPolicy(ExecutorPolicy.WORK_STEALING, 2);
+			assertTaskExecuted(stage);
+			Assert.assertFalse(executorService.isShutdown());
+		} finally {
+			executorService.shutdown();
+		}
+	}
+
+	private static void assertTaskExecuted(TestStageController stage) throws Exception {
+		CompletableFuture<Boolean> executed = new CompletableFuture<>();
+
+		stage.execute(() -> executed.complete(Boolean.TRUE));
+		Assert.assertEquals(Boolean.TRUE, executed.get(TIMEOUT, TimeUnit.SECONDS));
+	}
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.stage.logview;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test {@link LogRecordArchive} class.
+ */
+public class LogRecordArchiveTest {
+
+	/**
+	 * Temporary directory to create the archives in.
+	 */
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	/**
+	 * Test that all record attributes survive archiving.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+		Level customLevel = new Level("CUSTOM", 850) {
+
+			private static final long serialVersionUID = 1L;
+
+		};
+
+		try (LogRecordArchive archive = LogRecordArchive.create(this.tempFolder.getRoot().toPath())) {
+			LogRecordModel model1 = model(Level.WARNING, 7, 1234L, "warning \u00e4\u20ac");
+			LogRecordModel model2 = model(customLevel, 8, 5678L, "custom");
+
+			model2.setRepeatCount(3);
+			archive.append(Arrays.asList(model1, model2));
+			Assert.assertEquals(2, archive.size());
+			assertArchived(model1, archive.get(0));
+			assertArchived(model2, archive.get(1));
+			Assert.assertEquals(customLevel, archive.get(1).getRecord().getLevel());
+			Assert.assertThrows(IndexOutOfBoundsException.class, () -> archive.get(2));
+			Assert.assertThrows(IndexOutOfBoundsException.class, () -> archive.get(-1));
+		}
+	}
+
+	/**
+	 * Test reading records while appending (partially filled pages).
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void testInterleavedAppendAndGet() throws IOException {
+		try (LogRecordArchive archive = LogRecordArchive.create(this.tempFolder.getRoot().toPath())) {
+			List<LogRecordModel> models = new ArrayList<>();
+
+			for (int index = 0; index < 1000; index++) {
+				LogRecordModel model = model(Level.INFO, index, index, "message " + index);
+
+				models.add(model);
+				archive.append(Arrays.asList(model));
+				assertArchived(model, archive.get(index));
+				assertArchived(models.get(index / 2), archive.get(index / 2));
+			}
+			for (int index = models.size() - 1; index >= 0; index--) {
+				assertArchived(models.get(index), archive.get(index));
+			}
+		}
+	}
+
+	/**
+	 * Test records spread over multiple segment files.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void testMultipleSegments() throws IOException {
+		char[] filler = new char[64 * 1024];
+
+		Arrays.fill(filler, 'x');
+
+		String longMessage = new String(filler);
+
+		try (LogRecordArchive archive = LogRecordArchive.create(this.tempFolder.getRoot().toPath())) {
+			List<LogRecordModel> models = new ArrayList<>();
+
+			for (int index = 0; index < 200; index++) {
+				models.add(model(Level.FINE, index, index, index + longMessage));
+			}
+			archive.append(models);
+			Assert.assertEquals(models.size(), archive.size());
+			for (int index : new int[] { 0, 199, 1, 100, 63, 64, 65, 0 }) {
+				assertArchived(models.get(index), archive.get(index));
+			}
+		}
+	}
+
+	/**
+	 * Test clearing and closing an archive.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void testClearAndClose() throws IOException {
+		Path root = this.tempFolder.getRoot().toPath();
+		LogRecordArchive archive = LogRecordArchive.create(root);
+
+		try {
+			archive.append(Arrays.asList(model(Level.INFO, 1, 1L, "before clear")));
+			archive.get(0);
+			archive.clear();
+			Assert.assertEquals(0, archive.size());
+
+			LogRecordModel model = model(Level.SEVERE, 2, 2L, "after clear");
+
+			archive.append(Arrays.asList(model));
+			Assert.assertEquals(1, archive.size());
+			assertArchived(model, archive.get(0));
+		} finally {
+			archive.close();
+		}
+		try (Stream<Path> files = Files.list(root)) {
+			Assert.assertEquals(0, files.count());
+		}
+	}
+
+	private static LogRecordModel model(Level level, int threadId, long millis, String message) {
+		LogRecord record = new LogRecord(level, message);
+
+		record.setThreadID(threadId);
+		record.setMillis(millis);
+		return new LogRecordModel(record);
+	}
+
+	private static void assertArchived(LogRecordModel expected, LogRecordModel actual) {
+		LogRecord expectedRecord = expected.getRecord();
+		LogRecord actualRecord = actual.getRecord();
+
+		Assert.assertEquals(expectedRecord.getLevel().intValue(), actualRecord.getLevel().intValue());
+		Assert.assertEquals(expectedRecord.getThreadID(), actualRecord.getThreadID());
+		Assert.assertEquals(expectedRecord.getMillis(), actualRecord.getMillis());
+		Assert.assertEquals(expected.getRepeatCount(), actual.getRepeatCount());
+		Assert.assertEquals(expected.getMessage(), actual.getMessage());
+	}
+
+}
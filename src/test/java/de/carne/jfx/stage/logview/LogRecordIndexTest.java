@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.stage.logview;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test {@link LogRecordIndex} class.
+ */
+public class LogRecordIndexTest {
+
+	private static final int THREAD_A = 1;
+
+	private static final int THREAD_B = 2;
+
+	/**
+	 * Test selection of all records.
+	 */
+	@Test
+	public void testSelectAll() {
+		LogRecordIndex index = new LogRecordIndex();
+		List<LogRecordModel> models = populate(index);
+
+		Assert.assertEquals(models, index.select(LogRecordFilter.NONE));
+	}
+
+	/**
+	 * Test selection by level, thread and message.
+	 */
+	@Test
+	public void testSelectFiltered() {
+		LogRecordIndex index = new LogRecordIndex();
+		List<LogRecordModel> models = populate(index);
+
+		Assert.assertEquals(Arrays.asList(models.get(1), models.get(3), models.get(4)),
+				index.select(new LogRecordFilter(Level.WARNING, null, null)));
+		Assert.assertEquals(Arrays.asList(models.get(1), models.get(2), models.get(4)),
+				index.select(new LogRecordFilter(null, Integer.valueOf(THREAD_B), null)));
+		Assert.assertEquals(Arrays.asList(models.get(1), models.get(4)),
+				index.select(new LogRecordFilter(Level.WARNING, Integer.valueOf(THREAD_B), null)));
+		Assert.assertEquals(Arrays.asList(models.get(3), models.get(4)),
+				index.select(new LogRecordFilter(null, null, LogRecordFilter.substringPattern("SEVERE"))));
+		Assert.assertEquals(Arrays.asList(),
+				index.select(new LogRecordFilter(null, Integer.valueOf(THREAD_B + 1), null)));
+	}
+
+	/**
+	 * Test eviction and clearing.
+	 */
+	@Test
+	public void testEvictAndClear() {
+		LogRecordIndex index = new LogRecordIndex();
+		List<LogRecordModel> models = populate(index);
+
+		index.evict(models.get(0));
+		index.evict(models.get(1));
+		Assert.assertEquals(models.subList(2, models.size()), index.select(LogRecordFilter.NONE));
+		// Out of order eviction
+		index.evict(models.get(3));
+		Assert.assertEquals(Arrays.asList(models.get(2), models.get(4)), index.select(LogRecordFilter.NONE));
+		Assert.assertEquals(Arrays.asList(models.get(4)), index.select(new LogRecordFilter(Level.WARNING, null, null)));
+		index.clear();
+		Assert.assertEquals(Arrays.asList(), index.select(LogRecordFilter.NONE));
+
+		// Arrival order continues after clear
+		LogRecordModel model = model(Level.INFO, THREAD_A, "info again");
+
+		index.add(model);
+		Assert.assertTrue(model.getArrival() > models.get(4).getArrival());
+		Assert.assertEquals(Arrays.asList(model), index.select(LogRecordFilter.NONE));
+	}
+
+	private static List<LogRecordModel> populate(LogRecordIndex index) {
+		List<LogRecordModel> models = new ArrayList<>();
+
+		models.add(model(Level.INFO, THREAD_A, "info a"));
+		models.add(model(Level.WARNING, THREAD_B, "warning b"));
+		models.add(model(Level.FINE, THREAD_B, "fine b"));
+		models.add(model(Level.SEVERE, THREAD_A, "severe a"));
+		index.addAll(models);
+
+		LogRecordModel last = model(Level.SEVERE, THREAD_B, "severe b");
+
+		index.add(last);
+		models.add(last);
+		return models;
+	}
+
+	private static LogRecordModel model(Level level, int threadId, String message) {
+		LogRecord record = new LogRecord(level, message);
+
+		record.setThreadID(threadId);
+		return new LogRecordModel(record);
+	}
+
+}
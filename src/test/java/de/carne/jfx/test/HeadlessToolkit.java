@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.test;
+
+import java.util.Locale;
+import java.util.concurrent.TimeoutException;
+
+import org.testfx.api.FxToolkit;
+
+import javafx.stage.Stage;
+
+/**
+ * Utility class providing the common (headless) JavaFX toolkit setup for tests and benchmarks.
+ * <p>
+ * Unless the {@link #PROPERTY_NO_HEADLESS_MODE} system property is set, the toolkit is started headless using the
+ * Monocle platform and the software renderer.
+ */
+public final class HeadlessToolkit {
+
+	private HeadlessToolkit() {
+		// Make sure this class is not instantiated from outside
+	}
+
+	/**
+	 * Set this system property to {@code true} to not use headless mode.
+	 */
+	public static final String PROPERTY_NO_HEADLESS_MODE = "noHeadlessMode";
+
+	/**
+	 * Start the JavaFX toolkit (if not yet started).
+	 *
+	 * @return The toolkit's primary stage.
+	 * @throws TimeoutException if the toolkit startup times out.
+	 */
+	public static synchronized Stage setUp() throws TimeoutException {
+		Locale.setDefault(Locale.US);
+		if (!Boolean.getBoolean(PROPERTY_NO_HEADLESS_MODE)) {
+			System.out.println("Using headless mode...");
+			System.setProperty("testfx.robot", "glass");
+			System.setProperty("testfx.headless", "true");
+			System.setProperty("glass.platform", "Monocle");
+			System.setProperty("monocle.platform", "Headless");
+			System.setProperty("prism.order", "sw");
+			System.setProperty("prism.text", "t2k");
+			System.setProperty("java.awt.headless", "true");
+		}
+		return FxToolkit.registerPrimaryStage();
+	}
+
+}
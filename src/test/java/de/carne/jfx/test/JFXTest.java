@@ -16,8 +16,9 @@
  */
 package de.carne.jfx.test;
 
-import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
 
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -28,6 +29,11 @@ import org.testfx.matcher.base.NodeMatchers;
 import org.testfx.matcher.control.TextMatchers;
 
 import de.carne.boot.logging.Logs;
+import de.carne.jfx.fxml.FXMLController;
+import de.carne.jfx.scene.control.DialogController;
+import de.carne.jfx.scene.control.aboutinfo.AboutInfoController;
+import de.carne.jfx.stage.StageController;
+import de.carne.jfx.stage.logview.LogViewController;
 
 /**
  * TestFX based test case responsible for performing all JavaFX based tests.
@@ -37,7 +43,7 @@ public class JFXTest extends FxRobot {
 	/**
 	 * Set this system property to {@code true} to not use headless mode.
 	 */
-	public static final String PROPERTY_NO_HEADLESS_MODE = "noHeadlessMode";
+	public static final String PROPERTY_NO_HEADLESS_MODE = HeadlessToolkit.PROPERTY_NO_HEADLESS_MODE;
 
 	/**
 	 * Setup TestFX.
@@ -48,16 +54,7 @@ public class JFXTest extends FxRobot {
 	public static void setUpTestFX() throws Exception {
 		System.setProperty("enableTestMode", "true");
 		Logs.readConfig(Logs.CONFIG_DEBUG);
-		Locale.setDefault(Locale.US);
-		if (!Boolean.getBoolean(PROPERTY_NO_HEADLESS_MODE)) {
-			System.out.println("Using headless mode...");
-			System.setProperty("testfx.robot", "glass");
-			System.setProperty("testfx.headless", "true");
-			System.setProperty("prism.order", "sw");
-			System.setProperty("prism.text", "t2k");
-			System.setProperty("java.awt.headless", "true");
-		}
-		FxToolkit.registerPrimaryStage();
+		HeadlessToolkit.setUp();
 	}
 
 	/**
@@ -78,6 +75,7 @@ public class JFXTest extends FxRobot {
 		scenarioOpened();
 		scenarioLogs();
 		scenarioAbout();
+		scenarioPreloaded();
 		scenarioClose();
 	}
 
@@ -102,6 +100,24 @@ public class JFXTest extends FxRobot {
 		clickOn(TextMatchers.hasText("Close"));
 	}
 
+	private void scenarioPreloaded() {
+		assertRoot();
+
+		long preloadedLoadCount = FXMLController.getLoadMetrics().preloadedLoadCount();
+
+		// Preload synchronously to make sure the following loads find the preloaded UIs
+		FXMLController.setPreloadExecutor(Runnable::run);
+		try {
+			StageController.preload(LogViewController.class);
+			DialogController.preload(AboutInfoController.class);
+		} finally {
+			FXMLController.setPreloadExecutor(ForkJoinPool.commonPool());
+		}
+		scenarioLogs();
+		scenarioAbout();
+		Assert.assertEquals(preloadedLoadCount + 2, FXMLController.getLoadMetrics().preloadedLoadCount());
+	}
+
 	private void scenarioClose() {
 		assertRoot();
 		clickOn("#menuFile");
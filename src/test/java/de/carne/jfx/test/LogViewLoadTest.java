@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.carne.boot.Exceptions;
+import de.carne.boot.logging.Log;
+import de.carne.boot.logging.Logs;
+import de.carne.jfx.application.PlatformHelper;
+import de.carne.jfx.stage.StageController;
+import de.carne.jfx.stage.logview.LogRecordModel;
+import de.carne.jfx.stage.logview.LogViewController;
+import javafx.animation.AnimationTimer;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableView;
+import javafx.stage.Stage;
+
+/**
+ * Headless load test measuring how many log records per second the log view can take.
+ * <p>
+ * The test publishes log records from a configurable number of producer threads at a configurable rate and reports
+ * the JavaFX pulse intervals, the publish-to-render latency and the heap growth. It is not part of the regular test
+ * run; use the {@code loadTest} Gradle task to run it.
+ */
+public class LogViewLoadTest {
+
+	private static final Log LOG = new Log();
+
+	/**
+	 * System property defining the number of producer threads.
+	 */
+	public static final String PROPERTY_PRODUCERS = "loadTest.producers";
+
+	/**
+	 * System property defining the number of records per second published by every producer thread.
+	 */
+	public static final String PROPERTY_RATE = "loadTest.rate";
+
+	/**
+	 * System property defining the test duration in seconds.
+	 */
+	public static final String PROPERTY_DURATION = "loadTest.duration";
+
+	/**
+	 * System property defining the file to write the test report to.
+	 */
+	public static final String PROPERTY_REPORT = "loadTest.report";
+
+	private static final int DEFAULT_PRODUCERS = 4;
+
+	private static final int DEFAULT_RATE = 1000;
+
+	private static final int DEFAULT_DURATION = 10;
+
+	private static final long DRAIN_TIMEOUT = TimeUnit.SECONDS.toNanos(30);
+
+	/**
+	 * Setup TestFX.
+	 *
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpTestFX() throws Exception {
+		Logs.readConfig("logging-loadtest.properties");
+		HeadlessToolkit.setUp();
+	}
+
+	/**
+	 * Run the load test.
+	 *
+	 * @throws java.lang.Exception
+	 */
+	@Test
+	public void testLogViewLoad() throws Exception {
+		int producerCount = Integer.getInteger(PROPERTY_PRODUCERS, DEFAULT_PRODUCERS).intValue();
+		int rate = Integer.getInteger(PROPERTY_RATE, DEFAULT_RATE).intValue();
+		int duration = Integer.getInteger(PROPERTY_DURATION, DEFAULT_DURATION).intValue();
+		LogViewController logView = PlatformHelper.runLater(LogViewLoadTest::openLogView);
+		LoadProbe probe = PlatformHelper.runLater(() -> new LoadProbe(logView));
+		long heapBefore = usedHeap();
+		AtomicLong published = new AtomicLong();
+		long stopNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(duration);
+		Thread[] producers = new Thread[producerCount];
+
+		for (int producerIndex = 0; producerIndex < producerCount; producerIndex++) {
+			producers[producerIndex] = new Thread(() -> produce(rate, stopNanos, published),
+					"LoadProducer-" + producerIndex);
+			producers[producerIndex].start();
+		}
+		for (Thread producer : producers) {
+			producer.join();
+		}
+
+		long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT;
+
+		while (PlatformHelper.runLater(probe::renderedCount).longValue() < published.get()
+				&& System.nanoTime() < drainDeadline) {
+			Thread.sleep(100);
+		}
+		PlatformHelper.runLater(probe::stop);
+
+		long heapAfter = usedHeap();
+		String report = PlatformHelper.runLater(
+				() -> probe.report(producerCount, rate, duration, published.get(), heapAfter - heapBefore));
+
+		System.out.println(report);
+
+		String reportFile = System.getProperty(PROPERTY_REPORT);
+
+		if (reportFile != null) {
+			Path reportPath = Paths.get(reportFile);
+			Path reportDirectory = reportPath.getParent();
+
+			if (reportDirectory != null) {
+				Files.createDirectories(reportDirectory);
+			}
+			Files.write(reportPath, report.getBytes(StandardCharsets.UTF_8));
+		}
+		PlatformHelper.runLater(() -> logView.close(false));
+		Assert.assertTrue(PlatformHelper.runLater(probe::renderedCount).longValue() > 0);
+	}
+
+	private static LogViewController openLogView() {
+		try {
+			LogViewController logView = StageController.loadPrimaryStage(new Stage(), LogViewController.class);
+
+			logView.show();
+			return logView;
+		} catch (IOException e) {
+			throw Exceptions.toRuntime(e);
+		}
+	}
+
+	private static void produce(int rate, long stopNanos, AtomicLong published) {
+		long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(rate, 1);
+		long nextNanos = System.nanoTime();
+		long now;
+
+		while ((now = System.nanoTime()) < stopNanos) {
+			if (now < nextNanos) {
+				LockSupport.parkNanos(nextNanos - now);
+			} else {
+				long sequence = published.incrementAndGet();
+
+				LOG.info("Load record {0} published at {1}", Long.valueOf(sequence), Long.valueOf(System.nanoTime()));
+				nextNanos += intervalNanos;
+			}
+		}
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+
+		System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static final class LoadProbe extends AnimationTimer {
+
+		private final Samples pulseIntervals = new Samples();
+
+		private final Samples renderLatencies = new Samples();
+
+		private final Samples pendingPublishTimes = new Samples();
+
+		private final ListChangeListener<LogRecordModel> itemsListener = this::onItemsChanged;
+
+		private long lastPulseNanos = 0;
+
+		private long renderedCount = 0;
+
+		@SuppressWarnings("unchecked")
+		LoadProbe(LogViewController logView) {
+			TableView<LogRecordModel> table = (TableView<LogRecordModel>) logView.getUI().getScene()
+					.lookup("#ctlLogRecords");
+
+			table.getItems().addListener(this.itemsListener);
+			table.itemsProperty().addListener((p, o, n) -> onItemsReplaced(o, n));
+			start();
+		}
+
+		@Override
+		public void handle(long now) {
+			if (this.lastPulseNanos != 0) {
+				this.pulseIntervals.add(now - this.lastPulseNanos);
+			}
+			this.lastPulseNanos = now;
+			// Records added during the previous pulse have been rendered by now
+			for (int publishIndex = 0; publishIndex < this.pendingPublishTimes.size(); publishIndex++) {
+				this.renderLatencies.add(now - this.pendingPublishTimes.get(publishIndex));
+			}
+			this.renderedCount += this.pendingPublishTimes.size();
+			this.pendingPublishTimes.clear();
+		}
+
+		long renderedCount() {
+			return this.renderedCount;
+		}
+
+		private void onItemsReplaced(@Nullable ObservableList<LogRecordModel> oldItems,
+				@Nullable ObservableList<LogRecordModel> newItems) {
+			if (oldItems != null) {
+				oldItems.removeListener(this.itemsListener);
+			}
+			if (newItems != null) {
+				newItems.addListener(this.itemsListener);
+			}
+		}
+
+		private void onItemsChanged(ListChangeListener.Change<? extends LogRecordModel> change) {
+			while (change.next()) {
+				if (change.wasAdded()) {
+					for (LogRecordModel model : change.getAddedSubList()) {
+						Object[] parameters = model.getRecord().getParameters();
+
+						if (parameters != null && parameters.length == 2 && parameters[1] instanceof Long) {
+							this.pendingPublishTimes.add(((Long) parameters[1]).longValue());
+						}
+					}
+				}
+			}
+		}
+
+		String report(int producerCount, int rate, int duration, long published, long heapGrowth) {
+			StringWriter buffer = new StringWriter();
+
+			try (PrintWriter out = new PrintWriter(buffer)) {
+				out.println("Log view load test");
+				out.printf("  Producers:                %d x %d records/s for %d s%n", producerCount, rate, duration);
+				out.printf("  Published records:        %d (%.0f records/s)%n", published, (double) published / duration);
+				out.printf("  Rendered records:         %d%n", this.renderedCount);
+				out.printf("  Pulse interval (ms):      %s%n", this.pulseIntervals.summary());
+				out.printf("  Render latency (ms):      %s%n", this.renderLatencies.summary());
+				out.printf("  Heap growth:              %d KiB%n", heapGrowth / 1024);
+			}
+			return buffer.toString();
+		}
+
+	}
+
+	private static final class Samples {
+
+		private long[] values = new long[1024];
+
+		private int size = 0;
+
+		Samples() {
+			// Nothing to do
+		}
+
+		void add(long value) {
+			if (this.size == this.values.length) {
+				this.values = Arrays.copyOf(this.values, this.size * 2);
+			}
+			this.values[this.size++] = value;
+		}
+
+		long get(int index) {
+			return this.values[index];
+		}
+
+		int size() {
+			return this.size;
+		}
+
+		void clear() {
+			this.size = 0;
+		}
+
+		String summary() {
+			String summary;
+
+			if (this.size > 0) {
+				long[] sorted = Arrays.copyOf(this.values, this.size);
+
+				Arrays.sort(sorted);
+				summary = String.format("p50 %.2f / p90 %.2f / p99 %.2f / max %.2f (%d samples)",
+						percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+						percentile(sorted, 1.00), this.size);
+			} else {
+				summary = "n/a";
+			}
+			return summary;
+		}
+
+		private static double percentile(long[] sorted, double percentile) {
+			int index = Math.max((int) Math.ceil(percentile * sorted.length) - 1, 0);
+
+			return sorted[index] / 1000000.0;
+		}
+
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javafx.collections.ListChangeListener;
+
+/**
+ * Test {@link CircularObservableList} class.
+ */
+public class CircularObservableListTest {
+
+	/**
+	 * Test appending beyond the capacity.
+	 */
+	@Test
+	public void testAppendAndEvict() {
+		CircularObservableList<Integer> list = new CircularObservableList<>(3);
+
+		Assert.assertEquals(3, list.capacity());
+		for (int value = 1; value <= 5; value++) {
+			list.add(Integer.valueOf(value));
+		}
+		Assert.assertEquals(Arrays.asList(3, 4, 5), list);
+		list.addAll(Arrays.asList(6, 7, 8, 9));
+		Assert.assertEquals(Arrays.asList(7, 8, 9), list);
+		Assert.assertFalse(list.addAll(new ArrayList<>()));
+	}
+
+	/**
+	 * Test that a bulk append is reported as a single change.
+	 */
+	@Test
+	public void testBulkAppendChange() {
+		CircularObservableList<Integer> list = new CircularObservableList<>(4);
+		List<String> changes = new ArrayList<>();
+
+		list.addAll(Arrays.asList(1, 2, 3));
+		list.addListener(recordChanges(changes));
+		list.addAll(Arrays.asList(4, 5, 6));
+		Assert.assertEquals(Arrays.asList(3, 4, 5, 6), list);
+		Assert.assertEquals(Arrays.asList("-0[1, 2]", "+1-4"), changes);
+	}
+
+	/**
+	 * Test modifications of a wrapped around list.
+	 */
+	@Test
+	public void testWrappedModifications() {
+		CircularObservableList<Integer> list = new CircularObservableList<>(4);
+		List<String> changes = new ArrayList<>();
+
+		list.addAll(Arrays.asList(1, 2, 3, 4, 5, 6));
+		list.addListener(recordChanges(changes));
+		Assert.assertEquals(Integer.valueOf(4), list.set(1, Integer.valueOf(40)));
+		Assert.assertEquals(Integer.valueOf(5), list.remove(2));
+		Assert.assertEquals(Arrays.asList(3, 40, 6), list);
+		Assert.assertEquals(Integer.valueOf(3), list.remove(0));
+		Assert.assertEquals(Arrays.asList(40, 6), list);
+		list.addAll(Arrays.asList(7, 8, 9));
+		Assert.assertEquals(Arrays.asList(6, 7, 8, 9), list);
+		Assert.assertEquals(Arrays.asList("-1[4]", "+1-2", "-2[5]", "-0[3]", "-0[40]", "+1-4"), changes);
+	}
+
+	/**
+	 * Test range removal and clearing.
+	 */
+	@Test
+	public void testRemoveRangeAndClear() {
+		CircularObservableList<Integer> list = new CircularObservableList<>(5);
+		List<String> changes = new ArrayList<>();
+
+		list.addAll(Arrays.asList(1, 2, 3, 4, 5, 6, 7));
+		list.addListener(recordChanges(changes));
+		list.remove(0, 2);
+		Assert.assertEquals(Arrays.asList(5, 6, 7), list);
+		list.remove(1, 2);
+		Assert.assertEquals(Arrays.asList(5, 7), list);
+		list.clear();
+		Assert.assertTrue(list.isEmpty());
+		list.clear();
+		list.setAll(Arrays.asList(8, 9));
+		Assert.assertEquals(Arrays.asList(8, 9), list);
+		Assert.assertEquals(Arrays.asList("-0[3, 4]", "-1[6]", "-0[5, 7]", "+0-2"), changes);
+	}
+
+	/**
+	 * Test invalid arguments.
+	 */
+	@Test
+	public void testInvalidArguments() {
+		CircularObservableList<Integer> list = new CircularObservableList<>(2);
+
+		list.add(Integer.valueOf(1));
+		Assert.assertThrows(IllegalArgumentException.class, () -> new CircularObservableList<>(0));
+		Assert.assertThrows(IndexOutOfBoundsException.class, () -> list.get(1));
+		Assert.assertThrows(IndexOutOfBoundsException.class, () -> list.remove(0, 2));
+	}
+
+	private static ListChangeListener<Integer> recordChanges(List<String> changes) {
+		return change -> {
+			while (change.next()) {
+				if (change.wasReplaced()) {
+					changes.add("-" + change.getFrom() + change.getRemoved());
+					changes.add("+" + change.getFrom() + "-" + change.getTo());
+				} else if (change.wasRemoved()) {
+					changes.add("-" + change.getFrom() + change.getRemoved());
+				} else if (change.wasAdded()) {
+					changes.add("+" + change.getFrom() + "-" + change.getTo());
+				}
+			}
+		};
+	}
+
+}
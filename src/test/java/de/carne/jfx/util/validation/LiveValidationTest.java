@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.util.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.carne.jfx.application.PlatformHelper;
+import de.carne.jfx.test.HeadlessToolkit;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.util.Duration;
+
+/**
+ * Test {@link LiveValidation} class.
+ */
+public class LiveValidationTest {
+
+	private static final long TIMEOUT = 10;
+
+	private static final String INVALID_MESSAGE = "invalid";
+
+	/**
+	 * Setup JavaFX toolkit.
+	 *
+	 * @throws Exception if an error occurs.
+	 */
+	@BeforeClass
+	public static void setUpToolkit() throws Exception {
+		HeadlessToolkit.setUp();
+	}
+
+	/**
+	 * Test that validation only starts with the first input change or an explicit revalidation.
+	 */
+	@Test
+	public void testLazyValidation() {
+		StringProperty input = new SimpleStringProperty("valid");
+		AtomicInteger checkCount = new AtomicInteger();
+		LiveValidation<String> validation = PlatformHelper.runLater(() -> new LiveValidation<>(input)
+				.addCheck(countingCheck(checkCount)).addCheck(countingCheck(checkCount)));
+
+		Assert.assertEquals(ValidationStatus.State.PENDING, PlatformHelper.runLater(validation::getStatus).getState());
+		Assert.assertEquals(0, checkCount.get());
+		PlatformHelper.runLater(validation::revalidate);
+		Assert.assertEquals(ValidationStatus.State.VALID, PlatformHelper.runLater(validation::getStatus).getState());
+		Assert.assertEquals(2, checkCount.get());
+		Assert.assertTrue(PlatformHelper.runLater(() -> Boolean.valueOf(validation.validProperty().get())));
+	}
+
+	/**
+	 * Test that input changes are debounced.
+	 *
+	 * @throws Exception if an error occurs.
+	 */
+	@Test
+	public void testDebounce() throws Exception {
+		StringProperty input = new SimpleStringProperty("");
+		List<String> checked = Collections.synchronizedList(new ArrayList<>());
+		LiveValidation<String> validation = PlatformHelper.runLater(() -> new LiveValidation<>(input)
+				.addCheck(value -> {
+					checked.add(value);
+					return null;
+				}).setDebounceDelay(Duration.millis(100)));
+
+		PlatformHelper.runLater(() -> {
+			for (int value = 1; value <= 5; value++) {
+				input.set("input" + value);
+			}
+		});
+		Assert.assertEquals(ValidationStatus.State.PENDING, PlatformHelper.runLater(validation::getStatus).getState());
+		awaitNotPending(validation);
+		Assert.assertEquals(Collections.singletonList("input5"), checked);
+		Assert.assertEquals(ValidationStatus.State.VALID, PlatformHelper.runLater(validation::getStatus).getState());
+	}
+
+	/**
+	 * Test that the results of outdated inputs are discarded.
+	 *
+	 * @throws Exception if an error occurs.
+	 */
+	@Test
+	public void testStaleResultDiscarded() throws Exception {
+		StringProperty input = new SimpleStringProperty("");
+		ManualExecutor executor = new ManualExecutor();
+		LiveValidation<String> validation = PlatformHelper.runLater(() -> new LiveValidation<>(input)
+				.addAsyncCheck(value -> (value != null && value.startsWith("stale") ? INVALID_MESSAGE : null))
+				.setExecutor(executor).setDebounceDelay(Duration.ZERO));
+
+		PlatformHelper.runLater(() -> input.set("stale"));
+		PlatformHelper.runLater(() -> input.set("current"));
+		Assert.assertEquals(2, executor.pendingCount());
+		// Finish the current validation before the outdated one
+		executor.runLast();
+		executor.runAll();
+		awaitNotPending(validation);
+		// Make sure any late result has been delivered
+		PlatformHelper.runLater(() -> {
+			// Nothing to do here
+		});
+		Assert.assertEquals(ValidationStatus.State.VALID, PlatformHelper.runLater(validation::getStatus).getState());
+
+		PlatformHelper.runLater(() -> input.set("stale again"));
+		PlatformHelper.runLater(validation::dispose);
+		executor.runAll();
+		PlatformHelper.runLater(() -> {
+			// Nothing to do here
+		});
+		Assert.assertEquals(ValidationStatus.State.PENDING, PlatformHelper.runLater(validation::getStatus).getState());
+	}
+
+	/**
+	 * Test committing pending, invalid and valid inputs.
+	 *
+	 * @throws Exception if an error occurs.
+	 */
+	@Test
+	public void testCommit() throws Exception {
+		StringProperty input = new SimpleStringProperty("");
+		AtomicInteger checkCount = new AtomicInteger();
+		ManualExecutor executor = new ManualExecutor();
+		LiveValidation<String> validation = PlatformHelper.runLater(() -> new LiveValidation<>(input)
+				.addAsyncCheck(countingCheck(checkCount)).setExecutor(executor)
+				.setDebounceDelay(Duration.seconds(TIMEOUT)).setCommitTimeout(Duration.millis(100)));
+
+		// Debounce timer still running and asynchronous check not finished in time
+		PlatformHelper.runLater(() -> input.set("valid"));
+		Assert.assertEquals(ValidationAlertsI18N.strMessageValidationPending(),
+				PlatformHelper.runLater(() -> commitMessage(validation)));
+		Assert.assertEquals(0, checkCount.get());
+
+		// Asynchronous check finishing while waiting
+		Thread runner = new Thread(() -> {
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			executor.runAll();
+		});
+
+		PlatformHelper.runLater(() -> {
+			validation.setCommitTimeout(Duration.seconds(TIMEOUT));
+		});
+		runner.start();
+		Assert.assertNull(PlatformHelper.runLater(() -> commitMessage(validation)));
+		runner.join();
+		Assert.assertEquals(1, checkCount.get());
+
+		// Already validated input is not checked again
+		Assert.assertEquals("valid", PlatformHelper.runLater(() -> commitValue(validation)));
+		PlatformHelper.runLater(() -> {
+			input.set(INVALID_MESSAGE);
+			validation.revalidate();
+		});
+		executor.runAll();
+		awaitNotPending(validation);
+		Assert.assertEquals(2, checkCount.get());
+		Assert.assertEquals(INVALID_MESSAGE, PlatformHelper.runLater(() -> commitMessage(validation)));
+		Assert.assertEquals(2, checkCount.get());
+	}
+
+	/**
+	 * Test committing an input whose asynchronous check fails.
+	 *
+	 * @throws Exception if an error occurs.
+	 */
+	@Test
+	public void testCommitFailure() throws Exception {
+		StringProperty input = new SimpleStringProperty("");
+		ManualExecutor executor = new ManualExecutor();
+		LiveValidation<String> validation = PlatformHelper.runLater(() -> new LiveValidation<>(input)
+				.addAsyncCheck(value -> {
+					throw new IllegalStateException("check failed");
+				}).setExecutor(executor).setDebounceDelay(Duration.ZERO).setCommitTimeout(Duration.seconds(TIMEOUT)));
+
+		PlatformHelper.runLater(() -> input.set("failing"));
+
+		Thread runner = new Thread(() -> {
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			executor.runAll();
+		});
+
+		runner.start();
+		Assert.assertEquals("check failed", PlatformHelper.runLater(() -> commitMessage(validation)));
+		runner.join();
+	}
+
+	private static ValidationCheck<String> countingCheck(AtomicInteger checkCount) {
+		return value -> {
+			checkCount.incrementAndGet();
+			return (INVALID_MESSAGE.equals(value) ? INVALID_MESSAGE : null);
+		};
+	}
+
+	private static String commitValue(LiveValidation<String> validation) {
+		try {
+			return validation.commit();
+		} catch (ValidationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Nullable
+	private static String commitMessage(LiveValidation<String> validation) {
+		String message = null;
+
+		try {
+			validation.commit();
+		} catch (ValidationException e) {
+			message = e.getMessage();
+		}
+		return message;
+	}
+
+	private static void awaitNotPending(LiveValidation<String> validation) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT);
+
+		while (PlatformHelper.runLater(validation::getStatus).getState() == ValidationStatus.State.PENDING
+				&& System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	private static final class ManualExecutor implements Executor {
+
+		private final List<Runnable> tasks = new ArrayList<>();
+
+		ManualExecutor() {
+			// Nothing to do here
+		}
+
+		@Override
+		public synchronized void execute(Runnable command) {
+			this.tasks.add(command);
+		}
+
+		synchronized int pendingCount() {
+			return this.tasks.size();
+		}
+
+		void runLast() {
+			Runnable task;
+
+			synchronized (this) {
+				task = this.tasks.remove(this.tasks.size() - 1);
+			}
+			task.run();
+		}
+
+		void runAll() {
+			List<Runnable> tasksToRun;
+
+			synchronized (this) {
+				tasksToRun = new ArrayList<>(this.tasks);
+				this.tasks.clear();
+			}
+			tasksToRun.forEach(Runnable::run);
+		}
+
+	}
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2016-2021 Holger de Carne and contributors, All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.carne.jfx.util.validation;
+
+import java.io.IOException;
+import java.nio.file.AccessMode;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test {@link PathValidationContext} class.
+ */
+public class PathValidationContextTest {
+
+	private static final long TIMEOUT = 10;
+
+	/**
+	 * Temporary directory to create the test files in.
+	 */
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	/**
+	 * Test that repeated checks are served from the cache until the path is invalidated.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void testCacheAndInvalidate() throws IOException {
+		Path directory = this.tempFolder.getRoot().toPath();
+		Path file = Files.createFile(directory.resolve("file"));
+
+		try (PathValidationContext context = new PathValidationContext(1, TimeUnit.HOURS, 16)) {
+			Assert.assertTrue(context.readAttributes(file).isRegularFile());
+			context.checkAccess(file, AccessMode.READ);
+			Files.delete(file);
+			Assert.assertTrue(context.readAttributes(file).isRegularFile());
+			context.checkAccess(file, AccessMode.READ);
+			context.invalidate(directory);
+			Assert.assertThrows(NoSuchFileException.class, () -> context.readAttributes(file));
+			Assert.assertThrows(NoSuchFileException.class, () -> context.checkAccess(file, AccessMode.READ));
+			context.invalidate();
+			Assert.assertEquals(0, context.size());
+		}
+	}
+
+	/**
+	 * Test that cache entries expire.
+	 *
+	 * @throws Exception if an error occurs.
+	 */
+	@Test
+	public void testExpiry() throws Exception {
+		Path file = this.tempFolder.newFile().toPath();
+
+		try (PathValidationContext context = new PathValidationContext(50, TimeUnit.MILLISECONDS, 16)) {
+			Assert.assertTrue(context.readAttributes(file).isRegularFile());
+			Files.delete(file);
+			Thread.sleep(100);
+			Assert.assertThrows(NoSuchFileException.class, () -> context.readAttributes(file));
+		}
+	}
+
+	/**
+	 * Test that paths below a path known to be missing or not to be a directory are rejected from the cache.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void testMissingAncestor() throws IOException {
+		Path directory = this.tempFolder.getRoot().toPath();
+		Path missing = directory.resolve("missing");
+		Path file = Files.createFile(directory.resolve("file"));
+
+		try (PathValidationContext context = new PathValidationContext(1, TimeUnit.HOURS, 16)) {
+			Assert.assertThrows(NoSuchFileException.class, () -> context.readAttributes(missing));
+			// Created after caching; hence still rejected
+			Files.createFile(Files.createDirectory(missing).resolve("child"));
+			Assert.assertThrows(NoSuchFileException.class, () -> context.readAttributes(missing.resolve("child")));
+			Assert.assertThrows(NoSuchFileException.class,
+					() -> context.checkAccess(missing.resolve("child"), AccessMode.READ));
+			context.readAttributes(file);
+			Assert.assertThrows(NotDirectoryException.class, () -> context.readAttributes(file.resolve("child")));
+			context.invalidate(missing);
+			Assert.assertTrue(context.readAttributes(missing.resolve("child")).isRegularFile());
+		}
+	}
+
+	/**
+	 * Test that the number of cached paths is bounded.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void testMaxEntries() throws IOException {
+		Path directory = this.tempFolder.getRoot().toPath();
+
+		try (PathValidationContext context = new PathValidationContext(1, TimeUnit.HOURS, 4)) {
+			for (int fileIndex = 0; fileIndex < 10; fileIndex++) {
+				context.readAttributes(Files.createFile(directory.resolve("file" + fileIndex)));
+				Assert.assertTrue(context.size() <= 4);
+			}
+		}
+		Assert.assertThrows(IllegalArgumentException.class,
+				() -> new PathValidationContext(-1, TimeUnit.MILLISECONDS, 1));
+		Assert.assertThrows(IllegalArgumentException.class,
+				() -> new PathValidationContext(1, TimeUnit.MILLISECONDS, 0));
+	}
+
+	/**
+	 * Test that the parent directories of cached paths are watched for modifications.
+	 *
+	 * @throws Exception if an error occurs.
+	 */
+	@Test
+	public void testWatching() throws Exception {
+		Path file = this.tempFolder.newFile().toPath();
+
+		try (PathValidationContext context = new PathValidationContext(1, TimeUnit.HOURS, 16).setWatching(true)) {
+			Assert.assertTrue(context.readAttributes(file).isRegularFile());
+			Files.delete(file);
+
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT * 3);
+			boolean invalidated = false;
+
+			while (!invalidated && System.nanoTime() < deadline) {
+				try {
+					context.readAttributes(file);
+					Thread.sleep(50);
+				} catch (NoSuchFileException e) {
+					invalidated = true;
+				}
+			}
+			Assert.assertTrue(invalidated);
+		}
+	}
+
+	/**
+	 * Test concurrent checks of the same and of different paths.
+	 *
+	 * @throws Exception if an error occurs.
+	 */
+	@Test
+	public void testConcurrentChecks() throws Exception {
+		Path directory = this.tempFolder.getRoot().toPath();
+		List<Path> files = new ArrayList<>();
+
+		for (int fileIndex = 0; fileIndex < 8; fileIndex++) {
+			files.add(Files.createFile(directory.resolve("file" + fileIndex)));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try (PathValidationContext context = new PathValidationContext(1, TimeUnit.HOURS, 4)) {
+			List<Future<Boolean>> results = new ArrayList<>();
+
+			for (int checkIndex = 0; checkIndex < 1000; checkIndex++) {
+				Path file = files.get(checkIndex % files.size());
+
+				results.add(executor.submit(() -> Boolean.valueOf(PathValidator.testPath(file.toString(),
+						EnumSet.of(PathCheck.REGULAR_FILE, PathCheck.READABLE), context))));
+			}
+			for (Future<Boolean> result : results) {
+				Assert.assertEquals(Boolean.TRUE, result.get(TIMEOUT, TimeUnit.SECONDS));
+			}
+			Assert.assertTrue(context.size() <= 4);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+}